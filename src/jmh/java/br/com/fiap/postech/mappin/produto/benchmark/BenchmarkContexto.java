@@ -0,0 +1,24 @@
+package br.com.fiap.postech.mappin.produto.benchmark;
+
+import br.com.fiap.postech.mappin.produto.MappinProdutoApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+final class BenchmarkContexto {
+    private BenchmarkContexto() {
+    }
+
+    static ConfigurableApplicationContext iniciar(String... propriedades) {
+        return new SpringApplicationBuilder(MappinProdutoApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.batch.job.enabled=false",
+                        "spring.sql.init.mode=never",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.web=WARN")
+                .properties(propriedades)
+                .run();
+    }
+}
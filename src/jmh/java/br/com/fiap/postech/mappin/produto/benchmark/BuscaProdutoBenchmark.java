@@ -0,0 +1,51 @@
+package br.com.fiap.postech.mappin.produto.benchmark;
+
+import br.com.fiap.postech.mappin.produto.services.IndiceBuscaProduto;
+import br.com.fiap.postech.mappin.produto.services.ResultadoBusca;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BuscaProdutoBenchmark {
+    private static final String[] CATEGORIAS = {"café", "arroz", "feijão", "açúcar", "leite", "cerveja", "sabão",
+            "detergente", "biscoito", "chocolate", "macarrão", "óleo", "farinha", "sal", "molho", "tomate", "queijo",
+            "presunto", "iogurte", "suco"};
+    private static final String[] MODIFICADORES = {"integral", "tipo 1", "premium", "light", "zero", "original",
+            "tradicional", "extra", "especial", "natural"};
+
+    @Param({"1000000"})
+    public int produtos;
+
+    @Param({"c", "choc", "cafe int", "cervja", "cerveja premium marca12 "})
+    public String termo;
+
+    private IndiceBuscaProduto indice;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        indice = new IndiceBuscaProduto();
+        for (int i = 0; i < produtos; i++) {
+            indice.indexar(new UUID(random.nextLong(), random.nextLong()),
+                    CATEGORIAS[random.nextInt(CATEGORIAS.length)] + " "
+                            + MODIFICADORES[random.nextInt(MODIFICADORES.length)] + " marca" + random.nextInt(5000)
+                            + " " + (random.nextInt(2000) + 1) + "g sku" + i);
+        }
+        System.out.printf("%nÍndice de busca: %d produtos, %d termos, ~%d MB estimados%n",
+                indice.getProdutos(), indice.getTermos(), indice.getBytesEstimados() / (1024 * 1024));
+    }
+
+    @Benchmark
+    public List<ResultadoBusca> buscar() {
+        return indice.buscar(termo, 10);
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.fiap.postech.mappin.produto.benchmark;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.services.ProdutoFiltro;
+import br.com.fiap.postech.mappin.produto.services.ProdutoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FiltroProdutoBenchmark {
+    private static final double PRECO_MINIMO = 100d;
+    private static final double PRECO_MAXIMO = 110d;
+    private static final int QUANTIDADE_ABAIXO_DE = 10;
+    private static final int DIAS_ATUALIZACAO = 3;
+    private static final DateTimeFormatter FORMATO_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Param({"preco", "quantidade", "atualizacao", "preco+quantidade", "preco+atualizacao",
+            "quantidade+atualizacao", "preco+quantidade+atualizacao"})
+    public String filtros;
+
+    @Param({"100000"})
+    public int produtos;
+
+    private ConfigurableApplicationContext context;
+    private ProdutoService produtoService;
+    private ProdutoFiltro filtro;
+    private final Pageable pagina = PageRequest.of(0, 20);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexto.iniciar();
+        produtoService = context.getBean(ProdutoService.class);
+        LocalDateTime agora = LocalDateTime.now();
+        Random random = new Random(42);
+        List<Produto> lote = new ArrayList<>();
+        for (int i = 0; i < produtos; i++) {
+            Produto produto = new Produto("filtro " + i, random.nextInt(1000) + 1, random.nextInt(100000) / 100d + 0.01);
+            produto.setDataAtualizacao(agora.minusMinutes(random.nextInt(365 * 24 * 60)));
+            lote.add(produto);
+            if (lote.size() == 1000) {
+                produtoService.saveAll(lote);
+                lote = new ArrayList<>();
+            }
+        }
+        produtoService.saveAll(lote);
+
+        boolean preco = filtros.contains("preco");
+        boolean quantidade = filtros.contains("quantidade");
+        LocalDateTime atualizadoDesde = filtros.contains("atualizacao") ? agora.minusDays(DIAS_ATUALIZACAO) : null;
+        filtro = new ProdutoFiltro(null, null, preco ? PRECO_MINIMO : null, preco ? PRECO_MAXIMO : null,
+                quantidade ? QUANTIDADE_ABAIXO_DE : null, atualizadoDesde);
+        imprimirPlano(preco, quantidade, atualizadoDesde);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Produto> filtrar() {
+        return produtoService.findAll(pagina, filtro);
+    }
+
+    private void imprimirPlano(boolean preco, boolean quantidade, LocalDateTime atualizadoDesde) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        boolean postgres = jdbcTemplate.execute((Connection c) -> c.getMetaData().getDatabaseProductName())
+                .toLowerCase(Locale.ROOT).contains("postgres");
+        if (postgres) {
+            jdbcTemplate.execute("analyze tb_produto");
+        }
+        List<String> predicados = new ArrayList<>();
+        if (preco) {
+            predicados.add(String.format(Locale.ROOT, "preco between %.2f and %.2f", PRECO_MINIMO, PRECO_MAXIMO));
+        }
+        if (quantidade) {
+            predicados.add("quantidade < " + QUANTIDADE_ABAIXO_DE);
+        }
+        if (atualizadoDesde != null) {
+            predicados.add("data_atualizacao >= timestamp '" + atualizadoDesde.format(FORMATO_TIMESTAMP) + "'");
+        }
+        String plano = String.join("\n", jdbcTemplate.queryForList(
+                "explain select * from tb_produto where " + String.join(" and ", predicados) + " limit 20", String.class));
+        boolean faixaDeIndice = postgres
+                ? plano.contains("Index") && !plano.contains("Seq Scan")
+                : plano.toLowerCase(Locale.ROOT).contains("ix_produto_") && !plano.contains("tableScan");
+        System.out.printf("%nplano para %s (%s):%n%s%n", filtros,
+                faixaDeIndice ? "varredura de faixa de índice" : "ATENÇÃO: varredura completa da tabela", plano);
+    }
+}
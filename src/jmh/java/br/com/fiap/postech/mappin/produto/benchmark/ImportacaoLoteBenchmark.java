@@ -0,0 +1,90 @@
+package br.com.fiap.postech.mappin.produto.benchmark;
+
+import br.com.fiap.postech.mappin.produto.batch.ExecucaoProgramadaConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ImportacaoLoteBenchmark {
+    @Param({"16-16", "500-500", "16-5000"})
+    public String faixaChunk;
+
+    @Param({"100000"})
+    public int linhas;
+
+    private ConfigurableApplicationContext context;
+    private JobLauncher jobLauncher;
+    private Job job;
+    private Path arquivo;
+    private int invocacao;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] faixa = faixaChunk.split("-");
+        context = BenchmarkContexto.iniciar(
+                "mappin.lote.chunk.minimo=" + faixa[0],
+                "mappin.lote.chunk.maximo=" + faixa[1],
+                "mappin.lote.chunk.inicial=" + faixa[0]);
+        jobLauncher = context.getBean(JobLauncher.class);
+        job = context.getBean("produtoExecucaoProgramadaBatchJob", Job.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void gerarArquivo() throws IOException {
+        invocacao++;
+        arquivo = Files.createTempFile("produto-benchmark", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < linhas; i++) {
+                writer.write(String.format(Locale.ROOT, "lote %d produto %d,%d,%.2f%n", invocacao, i, i % 500 + 1, (i % 10000) / 100d));
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void removerArquivo() throws IOException {
+        Files.deleteIfExists(arquivo);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HistogramSnapshot tamanhos = context.getBean(MeterRegistry.class)
+                .get("produto.lote.chunk.tamanho").tag("step", "stepExecucaoProgramadaParticao")
+                .summary().takeSnapshot();
+        System.out.printf(Locale.ROOT, "%nchunk %s: tamanho médio %.0f, máximo %.0f, ajustes %d%n",
+                faixaChunk, tamanhos.mean(), tamanhos.max(), tamanhos.count());
+        context.close();
+    }
+
+    @Benchmark
+    public JobExecution importar() throws Exception {
+        JobExecution jobExecution = jobLauncher.run(job, new JobParametersBuilder()
+                .addString(ExecucaoProgramadaConfiguration.ARQUIVO, arquivo.toString())
+                .addLong("run.id", (long) invocacao)
+                .toJobParameters());
+        if (jobExecution.getStatus() != BatchStatus.COMPLETED) {
+            throw new IllegalStateException("Importação terminou com status " + jobExecution.getStatus()
+                    + ": " + jobExecution.getExitStatus().getExitDescription());
+        }
+        return jobExecution;
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.fiap.postech.mappin.produto.benchmark;
+
+import br.com.fiap.postech.mappin.produto.batch.ArquivoBinarioProdutoItemReader;
+import br.com.fiap.postech.mappin.produto.batch.ArquivoMapeadoProdutoItemReader;
+import br.com.fiap.postech.mappin.produto.batch.FormatoBinarioProduto;
+import br.com.fiap.postech.mappin.produto.batch.ProdutoProcessor;
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.services.ProdutoValidacao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeituraProdutoBenchmark {
+    @Param({"100000"})
+    public int linhas;
+
+    private Path arquivo;
+    private Path arquivoBinario;
+    private ProdutoProcessor produtoProcessor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        arquivo = Files.createTempFile("produto-benchmark", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < linhas; i++) {
+                writer.write(String.format(Locale.ROOT, "produto %d,%d,%.2f%n", i, i % 500 + 1, (i % 10000) / 100d));
+            }
+        }
+        arquivoBinario = Files.createTempFile("produto-benchmark", ".mpb");
+        FormatoBinarioProduto.converter(arquivo, arquivoBinario);
+        System.out.printf(Locale.ROOT, "%ncsv: %d bytes, binario: %d bytes%n", Files.size(arquivo), Files.size(arquivoBinario));
+        produtoProcessor = new ProdutoProcessor(new ProdutoValidacao(new SimpleMeterRegistry()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(arquivo);
+        Files.deleteIfExists(arquivoBinario);
+    }
+
+    @Benchmark
+    public int flatFileItemReader(Blackhole blackhole) throws Exception {
+        BeanWrapperFieldSetMapper<Produto> fieldSetMapper = new BeanWrapperFieldSetMapper<>();
+        fieldSetMapper.setTargetType(Produto.class);
+        return ler(new FlatFileItemReaderBuilder<Produto>()
+                .name("produtoItemReader")
+                .resource(new FileSystemResource(arquivo))
+                .delimited()
+                .names("nome", "quantidade", "preco")
+                .fieldSetMapper(fieldSetMapper)
+                .build(), blackhole);
+    }
+
+    @Benchmark
+    public int arquivoMapeadoProdutoItemReader(Blackhole blackhole) throws Exception {
+        return ler(new ArquivoMapeadoProdutoItemReader(new FileSystemResource(arquivo)), blackhole);
+    }
+
+    @Benchmark
+    public int arquivoBinarioProdutoItemReader(Blackhole blackhole) throws Exception {
+        return ler(new ArquivoBinarioProdutoItemReader(new FileSystemResource(arquivoBinario)), blackhole);
+    }
+
+    private int ler(ItemStreamReader<Produto> reader, Blackhole blackhole) throws Exception {
+        int lidos = 0;
+        reader.open(new ExecutionContext());
+        try {
+            Produto produto;
+            while ((produto = reader.read()) != null) {
+                blackhole.consume(produtoProcessor.process(produto));
+                lidos++;
+            }
+        } finally {
+            reader.close();
+        }
+        return lidos;
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.fiap.postech.mappin.produto.benchmark;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.integration.ProdutoRequest;
+import br.com.fiap.postech.mappin.produto.services.ProdutoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProdutoServiceBenchmark {
+    @Param({"true", "false"})
+    public boolean metricas;
+
+    private final AtomicInteger sequencia = new AtomicInteger();
+    private ConfigurableApplicationContext context;
+    private ProdutoService produtoService;
+    private UUID idProduto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexto.iniciar("management.metrics.enable.produto=" + metricas);
+        produtoService = context.getBean(ProdutoService.class);
+        idProduto = produtoService.save(new Produto("benchmark-estoque", Integer.MAX_VALUE, 10d)).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Produto save() {
+        return produtoService.save(new Produto("benchmark-" + sequencia.incrementAndGet(), 10, 9.99));
+    }
+
+    @Benchmark
+    public Produto update() {
+        Produto produto = new Produto(null, null, (double) (sequencia.incrementAndGet() % 1000));
+        produto.setId(null);
+        return produtoService.update(idProduto, produto);
+    }
+
+    @Benchmark
+    public void removerDoEstoque() {
+        produtoService.removerDoEstoque(new ProdutoRequest(idProduto, 1));
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+@Component
+public class AreaPreparacaoLote {
+    private static final String EXTENSAO_CSV = ".csv";
+    private static final String EXTENSAO_ZIP = ".zip";
+
+    private final Path diretorio;
+
+    public AreaPreparacaoLote(@Value("${mappin.lote.preparacao.diretorio:${java.io.tmpdir}/mappin-preparacao}") Path diretorio) {
+        this.diretorio = diretorio;
+    }
+
+    public Path novoArquivo(String sufixo) throws IOException {
+        return Files.createTempFile(Files.createDirectories(diretorio), "produto-", sufixo);
+    }
+
+    public Path novoDiretorio() throws IOException {
+        return Files.createTempDirectory(Files.createDirectories(diretorio), "produtos-");
+    }
+
+    public void adicionar(Path destino, String nomeOriginal, InputStream conteudo) throws IOException {
+        if (nomeOriginal != null && nomeOriginal.toLowerCase(Locale.ROOT).endsWith(EXTENSAO_ZIP)) {
+            ZipInputStream zip = new ZipInputStream(conteudo);
+            ZipEntry entrada;
+            while ((entrada = zip.getNextEntry()) != null) {
+                if (!entrada.isDirectory() && entrada.getName().toLowerCase(Locale.ROOT).endsWith(EXTENSAO_CSV)) {
+                    Files.copy(zip, proximoArquivo(destino));
+                }
+            }
+        } else {
+            Files.copy(conteudo, proximoArquivo(destino));
+        }
+    }
+
+    public static List<Path> arquivos(Path diretorio) throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(arquivo -> arquivo.getFileName().toString().endsWith(EXTENSAO_CSV)).sorted().toList();
+        }
+    }
+
+    public static void remover(Path caminho) throws IOException {
+        if (!Files.isDirectory(caminho)) {
+            Files.deleteIfExists(caminho);
+            return;
+        }
+        try (Stream<Path> arquivos = Files.walk(caminho)) {
+            for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    private static Path proximoArquivo(Path destino) throws IOException {
+        return destino.resolve(String.format("%05d%s", arquivos(destino).size() + 1, EXTENSAO_CSV));
+    }
+}
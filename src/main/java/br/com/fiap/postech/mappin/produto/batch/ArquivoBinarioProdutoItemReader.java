@@ -0,0 +1,151 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class ArquivoBinarioProdutoItemReader extends ItemStreamSupport implements ItemStreamReader<Produto> {
+    private static final String POSICAO = "posicao";
+    private static final String REGISTRO = "registro";
+    private static final long TAMANHO_JANELA = 64L * 1024 * 1024;
+
+    private final Resource recurso;
+    private final long inicio;
+    private final long fim;
+    private final byte[] nome = new byte[FormatoBinarioProduto.TAMANHO_MAXIMO_NOME];
+
+    private FileChannel canal;
+    private ByteBuffer janela;
+    private long inicioJanela;
+    private long tamanho;
+    private long limite;
+    private long posicao;
+    private long numeroRegistro;
+    private double divisor;
+    private int tamanhoBloco;
+
+    public ArquivoBinarioProdutoItemReader(Resource recurso) {
+        this(recurso, 0, Long.MAX_VALUE);
+    }
+
+    public ArquivoBinarioProdutoItemReader(Resource recurso, long inicio, long fim) {
+        this.recurso = recurso;
+        this.inicio = inicio;
+        this.fim = fim;
+        setName("produtoBinarioItemReader");
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        try {
+            if (recurso.isFile()) {
+                canal = FileChannel.open(recurso.getFile().toPath(), StandardOpenOption.READ);
+                tamanho = canal.size();
+                mapear(0, FormatoBinarioProduto.TAMANHO_CABECALHO);
+            } else {
+                janela = ByteBuffer.wrap(recurso.getContentAsByteArray());
+                inicioJanela = 0;
+                tamanho = janela.limit();
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Não foi possível abrir o arquivo " + recurso, e);
+        }
+        lerCabecalho();
+        limite = Math.min(fim, tamanho);
+        posicao = executionContext.getLong(getExecutionContextKey(POSICAO), Math.max(inicio, FormatoBinarioProduto.TAMANHO_CABECALHO));
+        numeroRegistro = executionContext.getLong(getExecutionContextKey(REGISTRO), 0L);
+    }
+
+    private void lerCabecalho() {
+        byte[] magica = new byte[FormatoBinarioProduto.MAGICA.length];
+        if (tamanho < FormatoBinarioProduto.TAMANHO_CABECALHO) {
+            throw new ItemStreamException("Arquivo binário de produtos sem cabeçalho: " + recurso);
+        }
+        janela.get(0, magica);
+        if (!Arrays.equals(magica, FormatoBinarioProduto.MAGICA)) {
+            throw new ItemStreamException("Arquivo não está no formato binário de produtos: " + recurso);
+        }
+        divisor = Math.pow(10, janela.get(magica.length));
+        tamanhoBloco = janela.getInt(FormatoBinarioProduto.POSICAO_TAMANHO_BLOCO);
+        if (!FormatoBinarioProduto.isTamanhoBlocoValido(tamanhoBloco)) {
+            throw new ItemStreamException("Tamanho de bloco inválido no arquivo binário de produtos: " + recurso);
+        }
+    }
+
+    @Override
+    public Produto read() throws Exception {
+        pularFimDeBloco();
+        if (posicao >= limite) {
+            return null;
+        }
+        numeroRegistro++;
+        garantir(Short.BYTES);
+        int tamanhoNome = Short.toUnsignedInt(janela.getShort((int) (posicao - inicioJanela)));
+        garantir(FormatoBinarioProduto.TAMANHO_FIXO_REGISTRO + tamanhoNome);
+        int deslocamento = (int) (posicao - inicioJanela) + Short.BYTES;
+        janela.get(deslocamento, nome, 0, tamanhoNome);
+        int quantidade = janela.getInt(deslocamento + tamanhoNome);
+        long preco = janela.getLong(deslocamento + tamanhoNome + Integer.BYTES);
+        posicao += FormatoBinarioProduto.TAMANHO_FIXO_REGISTRO + tamanhoNome;
+        return new Produto(new String(nome, 0, tamanhoNome, StandardCharsets.UTF_8), quantidade, preco / divisor);
+    }
+
+    private void pularFimDeBloco() throws IOException {
+        while (posicao < limite && posicao + Short.BYTES <= tamanho) {
+            long restante = FormatoBinarioProduto.restanteNoBloco(posicao, tamanhoBloco);
+            if (restante >= Short.BYTES) {
+                garantir(Short.BYTES);
+                if (Short.toUnsignedInt(janela.getShort((int) (posicao - inicioJanela))) != FormatoBinarioProduto.FIM_DE_BLOCO) {
+                    return;
+                }
+            }
+            posicao += restante;
+        }
+    }
+
+    private void garantir(int bytes) throws IOException {
+        if (posicao + bytes > tamanho) {
+            posicao = limite;
+            throw new FlatFileParseException("Registro truncado no registro " + numeroRegistro, "", (int) numeroRegistro);
+        }
+        if (posicao < inicioJanela || posicao + bytes > inicioJanela + janela.limit()) {
+            mapear(posicao, bytes);
+        }
+    }
+
+    private void mapear(long posicaoJanela, int minimo) throws IOException {
+        janela = canal.map(FileChannel.MapMode.READ_ONLY, posicaoJanela, Math.min(Math.max(TAMANHO_JANELA, minimo), tamanho - posicaoJanela));
+        inicioJanela = posicaoJanela;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putLong(getExecutionContextKey(POSICAO), posicao);
+        executionContext.putLong(getExecutionContextKey(REGISTRO), numeroRegistro);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        janela = null;
+        if (canal != null) {
+            try {
+                canal.close();
+            } catch (IOException e) {
+                throw new ItemStreamException("Não foi possível fechar o arquivo " + recurso, e);
+            } finally {
+                canal = null;
+            }
+        }
+    }
+}
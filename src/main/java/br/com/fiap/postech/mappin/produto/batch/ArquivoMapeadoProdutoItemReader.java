@@ -0,0 +1,126 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public class ArquivoMapeadoProdutoItemReader extends ItemStreamSupport implements ItemStreamReader<Produto> {
+    private static final String POSICAO = "posicao";
+    private static final String LINHA = "linha";
+    private static final long TAMANHO_JANELA = 64L * 1024 * 1024;
+
+    private final Resource recurso;
+    private final long inicio;
+    private final long fim;
+    private final ProdutoCsvParser parser = new ProdutoCsvParser();
+
+    private FileChannel canal;
+    private ByteBuffer janela;
+    private long inicioJanela;
+    private long tamanho;
+    private long limite;
+    private long posicao;
+    private long numeroLinha;
+
+    public ArquivoMapeadoProdutoItemReader(Resource recurso) {
+        this(recurso, 0, Long.MAX_VALUE);
+    }
+
+    public ArquivoMapeadoProdutoItemReader(Resource recurso, long inicio, long fim) {
+        this.recurso = recurso;
+        this.inicio = inicio;
+        this.fim = fim;
+        setName("produtoItemReader");
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        try {
+            if (recurso.isFile()) {
+                canal = FileChannel.open(recurso.getFile().toPath(), StandardOpenOption.READ);
+                tamanho = canal.size();
+            } else {
+                janela = ByteBuffer.wrap(recurso.getContentAsByteArray());
+                inicioJanela = 0;
+                tamanho = janela.limit();
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Não foi possível abrir o arquivo " + recurso, e);
+        }
+        limite = Math.min(fim, tamanho);
+        posicao = executionContext.getLong(getExecutionContextKey(POSICAO), inicio);
+        numeroLinha = executionContext.getLong(getExecutionContextKey(LINHA), 0L);
+    }
+
+    @Override
+    public Produto read() throws Exception {
+        while (posicao < limite) {
+            int fimLinha = localizarFimDaLinha();
+            int inicioLinha = (int) (posicao - inicioJanela);
+            posicao = inicioJanela + Math.min(fimLinha + 1, janela.limit());
+            numeroLinha++;
+            int fimConteudo = fimLinha > inicioLinha && janela.get(fimLinha - 1) == '\r' ? fimLinha - 1 : fimLinha;
+            if (fimConteudo > inicioLinha) {
+                return parser.parse(janela, inicioLinha, fimConteudo, numeroLinha);
+            }
+        }
+        return null;
+    }
+
+    private int localizarFimDaLinha() throws IOException {
+        long tamanhoJanela = TAMANHO_JANELA;
+        if (janela == null || posicao < inicioJanela || posicao >= inicioJanela + janela.limit()) {
+            mapear(tamanhoJanela);
+        }
+        while (true) {
+            int inicioLinha = (int) (posicao - inicioJanela);
+            for (int i = inicioLinha; i < janela.limit(); i++) {
+                if (janela.get(i) == '\n') {
+                    return i;
+                }
+            }
+            if (inicioJanela + janela.limit() >= tamanho) {
+                return janela.limit();
+            }
+            tamanhoJanela *= 2;
+            if (tamanhoJanela > Integer.MAX_VALUE) {
+                throw new FlatFileParseException("Linha excede o tamanho máximo suportado", "", (int) numeroLinha + 1);
+            }
+            mapear(tamanhoJanela);
+        }
+    }
+
+    private void mapear(long tamanhoJanela) throws IOException {
+        janela = canal.map(FileChannel.MapMode.READ_ONLY, posicao, Math.min(tamanhoJanela, tamanho - posicao));
+        inicioJanela = posicao;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putLong(getExecutionContextKey(POSICAO), posicao);
+        executionContext.putLong(getExecutionContextKey(LINHA), numeroLinha);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        janela = null;
+        if (canal != null) {
+            try {
+                canal.close();
+            } catch (IOException e) {
+                throw new ItemStreamException("Não foi possível fechar o arquivo " + recurso, e);
+            } finally {
+                canal = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ArquivoProdutoPartitioner implements Partitioner {
+    public static final String INICIO = "inicio";
+    public static final String FIM = "fim";
+    private static final String PARTICAO = "particao";
+    private static final int TAMANHO_LEITURA = 8192;
+
+    private final Path arquivo;
+    private final boolean binario;
+
+    public ArquivoProdutoPartitioner(Path arquivo) {
+        this(arquivo, false);
+    }
+
+    public ArquivoProdutoPartitioner(Path arquivo, boolean binario) {
+        this.arquivo = arquivo;
+        this.binario = binario;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> particoes = new LinkedHashMap<>();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (binario) {
+                particionarPorBlocos(canal, gridSize, particoes);
+            } else {
+                particionarPorLinhas(canal, gridSize, particoes);
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Não foi possível particionar o arquivo " + arquivo, e);
+        }
+        return particoes;
+    }
+
+    private static void particionarPorLinhas(FileChannel canal, int gridSize, Map<String, ExecutionContext> particoes) throws IOException {
+        long tamanho = canal.size();
+        long tamanhoFaixa = Math.max(1, tamanho / Math.max(1, gridSize));
+        long inicio = 0;
+        do {
+            long alvo = Math.min(tamanho, inicio + tamanhoFaixa);
+            long fim = particoes.size() == gridSize - 1 ? tamanho : proximoInicioDeLinha(canal, alvo, tamanho);
+            adicionar(particoes, inicio, fim);
+            inicio = fim;
+        } while (inicio < tamanho);
+    }
+
+    // todo bloco do MPB1 começa em um registro: as faixas são múltiplos do bloco e só o cabeçalho é lido
+    private void particionarPorBlocos(FileChannel canal, int gridSize, Map<String, ExecutionContext> particoes) throws IOException {
+        long tamanho = canal.size();
+        ByteBuffer cabecalho = ByteBuffer.allocate(FormatoBinarioProduto.TAMANHO_CABECALHO);
+        if (canal.read(cabecalho, 0) < FormatoBinarioProduto.TAMANHO_CABECALHO) {
+            throw new ItemStreamException("Arquivo binário de produtos sem cabeçalho: " + arquivo);
+        }
+        int tamanhoBloco = cabecalho.getInt(FormatoBinarioProduto.POSICAO_TAMANHO_BLOCO);
+        if (!FormatoBinarioProduto.isTamanhoBlocoValido(tamanhoBloco)) {
+            throw new ItemStreamException("Tamanho de bloco inválido no arquivo binário de produtos: " + arquivo);
+        }
+        long blocos = Math.max(1, (tamanho - FormatoBinarioProduto.TAMANHO_CABECALHO + tamanhoBloco - 1) / tamanhoBloco);
+        long quantidade = Math.min(Math.max(1, gridSize), blocos);
+        long inicio = FormatoBinarioProduto.TAMANHO_CABECALHO;
+        for (long i = 1; i <= quantidade; i++) {
+            long fim = i == quantidade
+                    ? tamanho
+                    : FormatoBinarioProduto.TAMANHO_CABECALHO + blocos * i / quantidade * tamanhoBloco;
+            adicionar(particoes, inicio, fim);
+            inicio = fim;
+        }
+    }
+
+    private static void adicionar(Map<String, ExecutionContext> particoes, long inicio, long fim) {
+        ExecutionContext contexto = new ExecutionContext();
+        contexto.putLong(INICIO, inicio);
+        contexto.putLong(FIM, fim);
+        particoes.put(PARTICAO + particoes.size(), contexto);
+    }
+
+    private static long proximoInicioDeLinha(FileChannel canal, long posicao, long tamanho) throws IOException {
+        if (posicao == 0 || posicao >= tamanho) {
+            return posicao;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_LEITURA);
+        long atual = posicao - 1;
+        while (atual < tamanho) {
+            buffer.clear();
+            int lidos = canal.read(buffer, atual);
+            if (lidos <= 0) {
+                break;
+            }
+            for (int i = 0; i < lidos; i++) {
+                if (buffer.get(i) == '\n') {
+                    return atual + i + 1;
+                }
+            }
+            atual += lidos;
+        }
+        return tamanho;
+    }
+}
@@ -0,0 +1,162 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.LongStream;
+
+public class ArquivosProdutoPartitioner implements Partitioner {
+    public static final String ARQUIVO = "arquivo";
+    public static final String SUBSTITUIDOS = "substituidos";
+    private static final String PARTICAO = "arquivo";
+    private static final String EXTENSAO_SUBSTITUIDOS = ".substituidos";
+
+    private final Path diretorio;
+    private final ToLongFunction<String> hashNome;
+
+    public ArquivosProdutoPartitioner(Path diretorio) {
+        this(diretorio, ConflitoArquivosProcessor::hashNome);
+    }
+
+    ArquivosProdutoPartitioner(Path diretorio, ToLongFunction<String> hashNome) {
+        this.diretorio = diretorio;
+        this.hashNome = hashNome;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        try {
+            List<Path> arquivos = AreaPreparacaoLote.arquivos(diretorio);
+            long[][] hashesPorArquivo = arquivos.parallelStream().map(this::lerHashes).toArray(long[][]::new);
+            // hashes iguais só indicam candidatos: os nomes desses registros são relidos e comparados por igualdade
+            long[] candidatos = new long[0];
+            long[] hashesPosteriores = new long[0];
+            for (int i = arquivos.size() - 1; i >= 0; i--) {
+                candidatos = uniao(candidatos, intersecao(hashesPorArquivo[i], hashesPosteriores));
+                hashesPosteriores = uniao(hashesPosteriores, hashesPorArquivo[i]);
+            }
+            long[] hashesCandidatos = candidatos;
+            List<Set<String>> nomesPorArquivo = arquivos.parallelStream()
+                    .map(arquivo -> lerNomes(arquivo, hashesCandidatos))
+                    .toList();
+            ExecutionContext[] contextos = new ExecutionContext[arquivos.size()];
+            Set<String> nomesPosteriores = new HashSet<>();
+            for (int i = arquivos.size() - 1; i >= 0; i--) {
+                ExecutionContext contexto = new ExecutionContext();
+                contexto.putString(ARQUIVO, arquivos.get(i).toString());
+                Set<String> substituidos = new HashSet<>(nomesPorArquivo.get(i));
+                substituidos.retainAll(nomesPosteriores);
+                if (!substituidos.isEmpty()) {
+                    Path arquivoSubstituidos = Path.of(arquivos.get(i) + EXTENSAO_SUBSTITUIDOS);
+                    ConflitoArquivosProcessor.gravar(arquivoSubstituidos, substituidos);
+                    contexto.putString(SUBSTITUIDOS, arquivoSubstituidos.toString());
+                }
+                contextos[i] = contexto;
+                nomesPosteriores.addAll(nomesPorArquivo.get(i));
+            }
+            Map<String, ExecutionContext> particoes = new LinkedHashMap<>();
+            for (int i = 0; i < contextos.length; i++) {
+                particoes.put(PARTICAO + i, contextos[i]);
+            }
+            return particoes;
+        } catch (IOException | UncheckedIOException e) {
+            throw new ItemStreamException("Não foi possível particionar os arquivos de " + diretorio, e);
+        }
+    }
+
+    private long[] lerHashes(Path arquivo) {
+        LongStream.Builder hashes = LongStream.builder();
+        lerNomes(arquivo, nome -> hashes.add(hashNome.applyAsLong(nome)));
+        return hashes.build().sorted().distinct().toArray();
+    }
+
+    private Set<String> lerNomes(Path arquivo, long[] hashesCandidatos) {
+        Set<String> nomes = new HashSet<>();
+        if (hashesCandidatos.length > 0) {
+            lerNomes(arquivo, nome -> {
+                if (Arrays.binarySearch(hashesCandidatos, hashNome.applyAsLong(nome)) >= 0) {
+                    nomes.add(nome);
+                }
+            });
+        }
+        return nomes;
+    }
+
+    private static void lerNomes(Path arquivo, Consumer<String> consumidor) {
+        ArquivoMapeadoProdutoItemReader reader = new ArquivoMapeadoProdutoItemReader(new FileSystemResource(arquivo));
+        int ultimaLinhaComErro = -1;
+        reader.open(new ExecutionContext());
+        try {
+            while (true) {
+                Produto produto;
+                try {
+                    produto = reader.read();
+                } catch (FlatFileParseException e) {
+                    if (e.getLineNumber() == ultimaLinhaComErro) {
+                        throw e;
+                    }
+                    ultimaLinhaComErro = e.getLineNumber();
+                    continue;
+                }
+                if (produto == null) {
+                    break;
+                }
+                consumidor.accept(produto.getNome());
+            }
+        } catch (Exception e) {
+            throw new ItemStreamException("Não foi possível ler o arquivo " + arquivo, e);
+        } finally {
+            reader.close();
+        }
+    }
+
+    static long[] intersecao(long[] a, long[] b) {
+        long[] resultado = new long[Math.min(a.length, b.length)];
+        int quantidade = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                resultado[quantidade++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, quantidade);
+    }
+
+    static long[] uniao(long[] a, long[] b) {
+        long[] resultado = new long[a.length + b.length];
+        int quantidade = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length || j < b.length) {
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                resultado[quantidade++] = a[i++];
+            } else if (i >= a.length || b[j] < a[i]) {
+                resultado[quantidade++] = b[j++];
+            } else {
+                resultado[quantidade++] = a[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, quantidade);
+    }
+}
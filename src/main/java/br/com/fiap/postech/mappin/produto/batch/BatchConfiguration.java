@@ -2,8 +2,11 @@ package br.com.fiap.postech.mappin.produto.batch;
 
 import br.com.fiap.postech.mappin.produto.entities.Produto;
 import br.com.fiap.postech.mappin.produto.services.ProdutoService;
+import br.com.fiap.postech.mappin.produto.services.ProdutoValidacao;
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
@@ -12,30 +15,30 @@ import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
-import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
 @Configuration
 public class BatchConfiguration {
 
     private final ProdutoService produtoService;
+    private final ProdutoValidacao produtoValidacao;
 
     @Autowired
-    public BatchConfiguration(ProdutoService produtoService) {
+    public BatchConfiguration(ProdutoService produtoService, ProdutoValidacao produtoValidacao) {
         this.produtoService = produtoService;
+        this.produtoValidacao = produtoValidacao;
     }
 
     @Bean
     public Job produtoBatchJob(JobRepository jobRepository, Step step, Step step2) {
         return new JobBuilder("cadastroProdutoLoteInicializacao", jobRepository)
                 .incrementer(new RunIdIncrementer())
+                .listener(new ResumoImportacaoListener())
                 .start(step)
                 .next(step2)
                 .build();
@@ -45,13 +48,18 @@ public class BatchConfiguration {
     public Step step(JobRepository jobRepository, PlatformTransactionManager platformTransactionManager,
                      ItemReader<Produto> produtoBatchItemReader,
                      ItemWriter<Produto> produtoBatchItemWriter,
-                     ItemProcessor<Produto, Produto> produtoBatchItemProcessor) {
-        return new StepBuilder("step", jobRepository)
-                .<Produto, Produto>chunk(16, platformTransactionManager)
-                .reader(produtoBatchItemReader)
-                .processor(produtoBatchItemProcessor)
-                .writer(produtoBatchItemWriter)
-                .taskExecutor(new SimpleAsyncTaskExecutor())
+                     ItemProcessor<Produto, Produto> produtoBatchItemProcessor,
+                     MetricasLoteListener metricasLoteListener,
+                     ToleranciaFalhasLote toleranciaFalhasLote,
+                     TamanhoChunkAdaptativo tamanhoChunkAdaptativo) {
+        return toleranciaFalhasLote.aplicar(new StepBuilder("step", jobRepository)
+                        .<Produto, Produto>chunk(tamanhoChunkAdaptativo, platformTransactionManager)
+                        .reader(produtoBatchItemReader)
+                        .processor(produtoBatchItemProcessor)
+                        .writer(produtoBatchItemWriter)
+                        .listener((StepExecutionListener) metricasLoteListener)
+                        .listener((ChunkListener) metricasLoteListener)
+                        .listener((ChunkListener) tamanhoChunkAdaptativo))
                 .build();
     }
 
@@ -73,25 +81,17 @@ public class BatchConfiguration {
     }
 
     @Bean
-    public ItemReader<Produto> produtoBatchItemReader() {
-        BeanWrapperFieldSetMapper<Produto> fieldSetMapper = new BeanWrapperFieldSetMapper<>();
-        fieldSetMapper.setTargetType(Produto.class);
-        return new FlatFileItemReaderBuilder<Produto>()
-                .name("produtoItemReader")
-                .resource(new ClassPathResource("produto.csv"))
-                .delimited()
-                .names("nome", "quantidade", "preco")
-                .fieldSetMapper(fieldSetMapper)
-                .build();
+    public ArquivoMapeadoProdutoItemReader produtoBatchItemReader() {
+        return new ArquivoMapeadoProdutoItemReader(new ClassPathResource("produto.csv"));
     }
 
     @Bean
     public ItemWriter<Produto> produtoBatchItemWriter() {
-        return (items) -> items.forEach(produtoService::save);
+        return new ProdutoItemWriter(produtoService);
     }
 
     @Bean
     public ItemProcessor<Produto, Produto> produtoBatchItemProcessor() {
-        return new ProdutoProcessor();
+        return new ProdutoProcessor(produtoValidacao);
     }
 }
@@ -0,0 +1,7 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+public class CapacidadeLoteEsgotadaException extends RuntimeException {
+    public CapacidadeLoteEsgotadaException(String message) {
+        super(message);
+    }
+}
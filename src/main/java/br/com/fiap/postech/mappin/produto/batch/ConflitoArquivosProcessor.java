@@ -0,0 +1,55 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.springframework.batch.item.ItemProcessor;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ConflitoArquivosProcessor implements ItemProcessor<Produto, Produto> {
+    private final Set<String> nomesSubstituidos;
+
+    public ConflitoArquivosProcessor(Set<String> nomesSubstituidos) {
+        this.nomesSubstituidos = nomesSubstituidos;
+    }
+
+    @Override
+    public Produto process(Produto produto) {
+        return nomesSubstituidos.contains(produto.getNome()) ? null : produto;
+    }
+
+    public static ConflitoArquivosProcessor carregar(String arquivo) throws IOException {
+        Set<String> nomes = new HashSet<>();
+        if (arquivo != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(Path.of(arquivo)));
+            while (buffer.hasRemaining()) {
+                byte[] nome = new byte[buffer.getInt()];
+                buffer.get(nome);
+                nomes.add(new String(nome, StandardCharsets.UTF_8));
+            }
+        }
+        return new ConflitoArquivosProcessor(nomes);
+    }
+
+    static void gravar(Path arquivo, Collection<String> nomes) throws IOException {
+        try (DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(arquivo)))) {
+            for (String nome : nomes) {
+                byte[] bytes = nome.getBytes(StandardCharsets.UTF_8);
+                saida.writeInt(bytes.length);
+                saida.write(bytes);
+            }
+        }
+    }
+
+    static long hashNome(String nome) {
+        return HashFnv.hash(nome);
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.entities.ProdutoImpressao;
+import br.com.fiap.postech.mappin.produto.repository.ProdutoImpressaoRepository;
+import br.com.fiap.postech.mappin.produto.repository.ProdutoRepository;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.*;
+
+public class DeltaProdutoItemWriter implements ItemWriter<Produto> {
+    public static final String INALTERADOS = "inalterados";
+
+    private final ItemWriter<Produto> delegate;
+    private final ProdutoRepository produtoRepository;
+    private final ProdutoImpressaoRepository produtoImpressaoRepository;
+    private final long execucao;
+
+    public DeltaProdutoItemWriter(ItemWriter<Produto> delegate, ProdutoRepository produtoRepository,
+                                  ProdutoImpressaoRepository produtoImpressaoRepository, long execucao) {
+        this.delegate = delegate;
+        this.produtoRepository = produtoRepository;
+        this.produtoImpressaoRepository = produtoImpressaoRepository;
+        this.execucao = execucao;
+    }
+
+    @Override
+    public void write(Chunk<? extends Produto> chunk) throws Exception {
+        Map<String, Produto> produtosPorNome = new LinkedHashMap<>();
+        for (Produto produto : chunk) {
+            produtosPorNome.put(produto.getNome(), produto);
+        }
+        // a impressão gravada só diz o que a última importação delta viu; PUT, DELETE, remoções de estoque e outras
+        // importações mudam o produto sem passar por aqui, então a comparação é sempre com o valor atual do banco
+        Map<String, Long> atuais = new HashMap<>();
+        produtoRepository.findByNomeIn(produtosPorNome.keySet())
+                .forEach(produto -> atuais.put(produto.getNome(), impressao(produto)));
+        Map<String, ProdutoImpressao> impressoes = new HashMap<>();
+        produtoImpressaoRepository.findAllById(produtosPorNome.keySet())
+                .forEach(impressao -> impressoes.put(impressao.getNome(), impressao));
+        List<Produto> alterados = new ArrayList<>();
+        List<String> vistos = new ArrayList<>();
+        List<ProdutoImpressao> novas = new ArrayList<>();
+        for (Produto produto : produtosPorNome.values()) {
+            long hash = impressao(produto);
+            if (!Objects.equals(atuais.get(produto.getNome()), hash)) {
+                alterados.add(produto);
+            }
+            ProdutoImpressao impressao = impressoes.get(produto.getNome());
+            if (impressao == null) {
+                novas.add(new ProdutoImpressao(produto.getNome(), hash, execucao));
+            } else if (impressao.getHash() == hash) {
+                vistos.add(produto.getNome());
+            } else {
+                impressao.atualizar(hash, execucao);
+            }
+        }
+        if (!alterados.isEmpty()) {
+            delegate.write(new Chunk<>(alterados));
+        }
+        try {
+            produtoImpressaoRepository.saveAllAndFlush(novas);
+        } catch (DataIntegrityViolationException exception) {
+            // outra partição gravou a impressão do mesmo nome depois da consulta; o step repete o chunk e passa a encontrá-la
+            throw new ConcurrencyFailureException("Outra partição gravou a impressão de um dos nomes do chunk ao mesmo tempo.", exception);
+        }
+        if (!vistos.isEmpty()) {
+            produtoImpressaoRepository.marcarComoVistos(vistos, execucao);
+        }
+        contarInalterados(produtosPorNome.size() - alterados.size());
+    }
+
+    static long impressao(Produto produto) {
+        long hash = HashFnv.hash(produto.getNome());
+        hash = HashFnv.misturar(hash, produto.getQuantidade());
+        long preco = Double.doubleToLongBits(produto.getPreco());
+        hash = HashFnv.misturar(hash, (int) (preco >>> 32));
+        return HashFnv.misturar(hash, (int) preco);
+    }
+
+    private static void contarInalterados(int quantidade) {
+        if (quantidade == 0) {
+            return;
+        }
+        StepContext stepContext = StepSynchronizationManager.getContext();
+        if (stepContext == null) {
+            return;
+        }
+        ExecutionContext executionContext = stepContext.getStepExecution().getExecutionContext();
+        executionContext.putLong(INALTERADOS, executionContext.getLong(INALTERADOS, 0L) + quantidade);
+    }
+}
@@ -1,63 +1,100 @@
 package br.com.fiap.postech.mappin.produto.batch;
 
+import br.com.fiap.postech.mappin.produto.config.ThreadsVirtuaisConfiguration;
 import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.repository.ProdutoImpressaoRepository;
+import br.com.fiap.postech.mappin.produto.repository.ProdutoRepository;
 import br.com.fiap.postech.mappin.produto.services.ProdutoService;
+import br.com.fiap.postech.mappin.produto.services.ProdutoValidacao;
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.file.FlatFileItemReader;
-import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
-import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.env.Environment;
 import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.file.Path;
 
 @Configuration
 public class ExecucaoProgramadaConfiguration {
+    public static final String ARQUIVO = "novoArquivoProdutoCsv";
 
     private final ProdutoService produtoService;
+    private final ProdutoRepository produtoRepository;
+    private final ProdutoImpressaoRepository produtoImpressaoRepository;
+    private final ProdutoValidacao produtoValidacao;
 
     @Autowired
-    public ExecucaoProgramadaConfiguration(ProdutoService produtoService) {
+    public ExecucaoProgramadaConfiguration(ProdutoService produtoService, ProdutoRepository produtoRepository,
+                                           ProdutoImpressaoRepository produtoImpressaoRepository, ProdutoValidacao produtoValidacao) {
         this.produtoService = produtoService;
+        this.produtoRepository = produtoRepository;
+        this.produtoImpressaoRepository = produtoImpressaoRepository;
+        this.produtoValidacao = produtoValidacao;
     }
 
     @Bean
-    public Job produtoExecucaoProgramadaBatchJob(JobRepository jobRepository, Step stepExecucaoProgramada, Step step2ExecucaoProgramada) {
+    public Job produtoExecucaoProgramadaBatchJob(JobRepository jobRepository, Step stepExecucaoProgramada, Step step2ExecucaoProgramada,
+                                                 JobExplorer jobExplorer, PlatformTransactionManager platformTransactionManager) {
         return new JobBuilder("cadastroProdutoLoteExecucaoProgramada", jobRepository)
                 .incrementer(new RunIdIncrementer())
+                .listener(new ResumoImportacaoListener())
+                .listener(new ImportacaoDeltaListener(produtoImpressaoRepository, jobExplorer, platformTransactionManager))
+                .listener(new RemoverArquivoImportadoListener(ARQUIVO))
                 .start(stepExecucaoProgramada)
                 .next(step2ExecucaoProgramada)
                 .build();
     }
 
     @Bean
-    public Step stepExecucaoProgramada(JobRepository jobRepository, PlatformTransactionManager platformTransactionManager,
+    public Step stepExecucaoProgramada(JobRepository jobRepository,
+                                       Step stepExecucaoProgramadaParticao,
+                                       Partitioner produtoExecucaoProgramadaPartitioner,
+                                       TaskExecutor loteTaskExecutor,
+                                       @Value("${mappin.lote.particoes:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int particoes) {
+        return new StepBuilder("stepExecucaoProgramada", jobRepository)
+                .partitioner("stepExecucaoProgramadaParticao", produtoExecucaoProgramadaPartitioner)
+                .step(stepExecucaoProgramadaParticao)
+                .gridSize(particoes)
+                .taskExecutor(loteTaskExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step stepExecucaoProgramadaParticao(JobRepository jobRepository, PlatformTransactionManager platformTransactionManager,
                      ItemReader<Produto> produtoExecucaoProgramadaBatchItemReader,
                      ItemWriter<Produto> produtoBatchExecucaoProgramadaItemWriter,
-                     ItemProcessor<Produto, Produto> produtoExecucaoProgramadaBatchItemProcessor) {
-        return new StepBuilder("step", jobRepository)
-                .<Produto, Produto>chunk(16, platformTransactionManager)
-                .reader(produtoExecucaoProgramadaBatchItemReader)
-                .processor(produtoExecucaoProgramadaBatchItemProcessor)
-                .writer(produtoBatchExecucaoProgramadaItemWriter)
-                .taskExecutor(new SimpleAsyncTaskExecutor())
+                     ItemProcessor<Produto, Produto> produtoExecucaoProgramadaBatchItemProcessor,
+                     MetricasLoteListener metricasLoteListener,
+                     ToleranciaFalhasLote toleranciaFalhasLote,
+                     TamanhoChunkAdaptativo tamanhoChunkAdaptativo) {
+        return toleranciaFalhasLote.aplicar(new StepBuilder("stepExecucaoProgramadaParticao", jobRepository)
+                        .<Produto, Produto>chunk(tamanhoChunkAdaptativo, platformTransactionManager)
+                        .reader(produtoExecucaoProgramadaBatchItemReader)
+                        .processor(produtoExecucaoProgramadaBatchItemProcessor)
+                        .writer(produtoBatchExecucaoProgramadaItemWriter)
+                        .listener((StepExecutionListener) metricasLoteListener)
+                        .listener((ChunkListener) metricasLoteListener)
+                        .listener((ChunkListener) tamanhoChunkAdaptativo))
                 .build();
     }
 
@@ -78,27 +115,44 @@ public class ExecucaoProgramadaConfiguration {
         });
     }
 
+    @Bean
+    public TaskExecutor loteTaskExecutor(@Value("${mappin.lote.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+                                         Environment environment) {
+        return ThreadsVirtuaisConfiguration.taskExecutor(environment, "lote-", threads);
+    }
+
+    @Bean
+    @StepScope
+    public ArquivoProdutoPartitioner produtoExecucaoProgramadaPartitioner(@Value("#{jobParameters['novoArquivoProdutoCsv']}") String novoArquivoProdutoCsv,
+                                                                         @Value("#{jobParameters['formato']}") String formato) {
+        return new ArquivoProdutoPartitioner(Path.of(novoArquivoProdutoCsv), FormatoBinarioProduto.BINARIO.equals(formato));
+    }
+
     @Bean("produtoExecucaoProgramadaBatchItemReader")
     @StepScope
-    public FlatFileItemReader<Produto> produtoExecucaoProgramadaBatchItemReader(@Value("#{jobParameters['novoArquivoProdutoCsv']}") String novoArquivoProdutoCsv) {
-        BeanWrapperFieldSetMapper<Produto> fieldSetMapper = new BeanWrapperFieldSetMapper<>();
-        fieldSetMapper.setTargetType(Produto.class);
-        return new FlatFileItemReaderBuilder<Produto>()
-                .name("produtoItemReader")
-                .resource(new FileSystemResource(novoArquivoProdutoCsv))
-                .delimited()
-                .names("nome", "quantidade", "preco")
-                .fieldSetMapper(fieldSetMapper)
-                .build();
+    public ItemStreamReader<Produto> produtoExecucaoProgramadaBatchItemReader(@Value("#{jobParameters['novoArquivoProdutoCsv']}") String novoArquivoProdutoCsv,
+                                                                             @Value("#{jobParameters['formato']}") String formato,
+                                                                             @Value("#{stepExecutionContext['inicio']}") Long inicio,
+                                                                             @Value("#{stepExecutionContext['fim']}") Long fim) {
+        if (FormatoBinarioProduto.BINARIO.equals(formato)) {
+            return new ArquivoBinarioProdutoItemReader(new FileSystemResource(novoArquivoProdutoCsv), inicio, fim);
+        }
+        return new ArquivoMapeadoProdutoItemReader(new FileSystemResource(novoArquivoProdutoCsv), inicio, fim);
     }
 
     @Bean
-    public ItemWriter<Produto> produtoBatchExecucaoProgramadaItemWriter() {
-        return (items) -> items.forEach(produtoService::save);
+    @StepScope
+    public ItemWriter<Produto> produtoBatchExecucaoProgramadaItemWriter(@Value("#{jobParameters['delta']}") String delta,
+                                                                        @Value("#{stepExecution.jobExecution.jobInstance.instanceId}") Long jobInstanceId) {
+        ItemWriter<Produto> produtoItemWriter = new ProdutoItemWriter(produtoService);
+        if (Boolean.parseBoolean(delta)) {
+            return new DeltaProdutoItemWriter(produtoItemWriter, produtoRepository, produtoImpressaoRepository, jobInstanceId);
+        }
+        return produtoItemWriter;
     }
 
     @Bean
     public ItemProcessor<Produto, Produto> produtoExecucaoProgramadaBatchItemProcessor() {
-        return new ProdutoProcessor();
+        return new ProdutoProcessor(produtoValidacao);
     }
 }
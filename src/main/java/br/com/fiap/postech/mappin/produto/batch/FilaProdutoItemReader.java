@@ -0,0 +1,17 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.springframework.batch.item.ItemReader;
+
+public class FilaProdutoItemReader implements ItemReader<Produto> {
+    private final FluxoImportacao fluxo;
+
+    public FilaProdutoItemReader(FluxoImportacao fluxo) {
+        this.fluxo = fluxo;
+    }
+
+    @Override
+    public Produto read() throws Exception {
+        return fluxo.proximo();
+    }
+}
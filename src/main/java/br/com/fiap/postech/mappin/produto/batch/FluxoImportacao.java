@@ -0,0 +1,73 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.springframework.batch.item.file.FlatFileParseException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class FluxoImportacao {
+    private static final Produto FIM = new Produto();
+    private static final long ESPERA_SEGUNDOS = 1;
+
+    private final BlockingQueue<Object> fila;
+    private final Duration esperaMaxima;
+    private volatile boolean abortado;
+    private volatile boolean encerrado;
+
+    public FluxoImportacao(int capacidade, Duration esperaMaxima) {
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.esperaMaxima = esperaMaxima;
+    }
+
+    public void publicar(Produto produto) throws InterruptedException {
+        enfileirar(produto);
+    }
+
+    // a linha inválida segue na fila, na sua posição, e é lançada pelo leitor do step,
+    // onde a política de tolerância a falhas a registra entre os rejeitados
+    public void rejeitar(FlatFileParseException exception) throws InterruptedException {
+        enfileirar(exception);
+    }
+
+    // quem publica é a thread da requisição; se o step parar de consumir, ela desiste depois de esperaMaxima
+    private void enfileirar(Object item) throws InterruptedException {
+        long limite = System.nanoTime() + esperaMaxima.toNanos();
+        while (!fila.offer(item, ESPERA_SEGUNDOS, TimeUnit.SECONDS)) {
+            if (encerrado) {
+                throw new IllegalStateException("A importação foi encerrada antes do fim do envio.");
+            }
+            if (System.nanoTime() - limite >= 0) {
+                throw new IllegalStateException("A importação não consumiu o envio em " + esperaMaxima + ".");
+            }
+        }
+    }
+
+    public void concluir() throws InterruptedException {
+        publicar(FIM);
+    }
+
+    public void abortar() {
+        abortado = true;
+    }
+
+    public Produto proximo() throws InterruptedException {
+        Object item;
+        while ((item = fila.poll(ESPERA_SEGUNDOS, TimeUnit.SECONDS)) == null) {
+            if (abortado) {
+                throw new IllegalStateException("O envio do arquivo foi interrompido.");
+            }
+        }
+        if (item instanceof FlatFileParseException exception) {
+            throw exception;
+        }
+        return item == FIM ? null : (Produto) item;
+    }
+
+    void encerrar() {
+        encerrado = true;
+        fila.clear();
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class FluxoImportacaoRegistry {
+    private final Map<String, FluxoImportacao> fluxos = new ConcurrentHashMap<>();
+
+    public FluxoImportacao criar(String id, int capacidade, Duration esperaMaxima) {
+        FluxoImportacao fluxo = new FluxoImportacao(capacidade, esperaMaxima);
+        fluxos.put(id, fluxo);
+        return fluxo;
+    }
+
+    public FluxoImportacao obter(String id) {
+        FluxoImportacao fluxo = fluxos.get(id);
+        if (fluxo == null) {
+            throw new IllegalStateException("Fluxo de importação não encontrado: " + id);
+        }
+        return fluxo;
+    }
+
+    public void remover(String id) {
+        FluxoImportacao fluxo = fluxos.remove(id);
+        if (fluxo != null) {
+            fluxo.encerrar();
+        }
+    }
+}
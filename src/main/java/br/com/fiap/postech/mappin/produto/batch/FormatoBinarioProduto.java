@@ -0,0 +1,144 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Formato MPB1: cabeçalho com os bytes "MPB1", a escala dos preços e o tamanho do bloco (int), seguido de registros com
+ * o tamanho do nome (unsigned short), o nome em UTF-8, a quantidade (int) e o preço em ponto fixo (long),
+ * todos big-endian. Os registros são agrupados em blocos de tamanho fixo contados a partir do fim do cabeçalho e nunca
+ * atravessam o limite de um bloco: o espaço que sobra no fim do bloco começa com {@link #FIM_DE_BLOCO} (ou tem menos de
+ * dois bytes) e é preenchido com zeros, então todo bloco começa em um registro e as partições são calculadas sem ler os dados.
+ */
+public final class FormatoBinarioProduto {
+    public static final String CONTENT_TYPE = "application/vnd.mappin.produto+binary";
+    public static final String FORMATO = "formato";
+    public static final String CSV = "csv";
+    public static final String BINARIO = "binario";
+    public static final int ESCALA_PADRAO = 4;
+
+    static final byte[] MAGICA = {'M', 'P', 'B', '1'};
+    public static final int TAMANHO_BLOCO_PADRAO = 1 << 20;
+    public static final int TAMANHO_MINIMO_BLOCO = 1 << 10;
+    public static final int TAMANHO_MAXIMO_BLOCO = 1 << 30;
+
+    static final int POSICAO_TAMANHO_BLOCO = MAGICA.length + 1;
+    static final int TAMANHO_CABECALHO = POSICAO_TAMANHO_BLOCO + Integer.BYTES;
+    static final int TAMANHO_FIXO_REGISTRO = Short.BYTES + Integer.BYTES + Long.BYTES;
+    static final int FIM_DE_BLOCO = 0xFFFF;
+    static final int TAMANHO_MAXIMO_NOME = FIM_DE_BLOCO - 1;
+
+    private FormatoBinarioProduto() {
+    }
+
+    public static boolean isBinario(Path arquivo) throws IOException {
+        try (InputStream entrada = Files.newInputStream(arquivo)) {
+            return Arrays.equals(entrada.readNBytes(MAGICA.length), MAGICA);
+        }
+    }
+
+    public static long converter(Path csv, Path binario) throws IOException {
+        return converter(csv, binario, ESCALA_PADRAO);
+    }
+
+    public static long converter(Path csv, Path binario, int escala) throws IOException {
+        return converter(csv, binario, escala, TAMANHO_BLOCO_PADRAO);
+    }
+
+    public static long converter(Path csv, Path binario, int escala, int tamanhoBloco) throws IOException {
+        if (!isTamanhoBlocoValido(tamanhoBloco)) {
+            throw new IllegalArgumentException("O tamanho do bloco deve ser uma potência de 2 entre "
+                    + TAMANHO_MINIMO_BLOCO + " e " + TAMANHO_MAXIMO_BLOCO + " bytes.");
+        }
+        ArquivoMapeadoProdutoItemReader reader = new ArquivoMapeadoProdutoItemReader(new FileSystemResource(csv));
+        long registros = 0;
+        reader.open(new ExecutionContext());
+        try (DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(binario), 1 << 16))) {
+            saida.write(MAGICA);
+            saida.writeByte(escala);
+            saida.writeInt(tamanhoBloco);
+            long restanteBloco = tamanhoBloco;
+            Produto produto;
+            while ((produto = reader.read()) != null) {
+                byte[] nome = produto.getNome().getBytes(StandardCharsets.UTF_8);
+                if (nome.length > TAMANHO_MAXIMO_NOME) {
+                    throw new IllegalArgumentException("Nome do produto excede " + TAMANHO_MAXIMO_NOME + " bytes: " + produto.getNome());
+                }
+                int tamanhoRegistro = TAMANHO_FIXO_REGISTRO + nome.length;
+                if (tamanhoRegistro > tamanhoBloco) {
+                    throw new IllegalArgumentException("Registro do produto excede o bloco de " + tamanhoBloco + " bytes: " + produto.getNome());
+                }
+                if (tamanhoRegistro > restanteBloco) {
+                    preencherBloco(saida, restanteBloco);
+                    restanteBloco = tamanhoBloco;
+                }
+                restanteBloco -= tamanhoRegistro;
+                saida.writeShort(nome.length);
+                saida.write(nome);
+                saida.writeInt(produto.getQuantidade());
+                saida.writeLong(precoEmPontoFixo(produto.getPreco(), escala));
+                registros++;
+            }
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Não foi possível converter o arquivo " + csv, e);
+        } finally {
+            reader.close();
+        }
+        return registros;
+    }
+
+    private static void preencherBloco(DataOutputStream saida, long restante) throws IOException {
+        if (restante >= Short.BYTES) {
+            saida.writeShort(FIM_DE_BLOCO);
+            restante -= Short.BYTES;
+        }
+        for (long i = 0; i < restante; i++) {
+            saida.write(0);
+        }
+    }
+
+    static boolean isTamanhoBlocoValido(int tamanhoBloco) {
+        return tamanhoBloco >= TAMANHO_MINIMO_BLOCO && tamanhoBloco <= TAMANHO_MAXIMO_BLOCO && Integer.bitCount(tamanhoBloco) == 1;
+    }
+
+    /**
+     * Distância da posição até o fim do bloco em que ela está.
+     */
+    static long restanteNoBloco(long posicao, int tamanhoBloco) {
+        return tamanhoBloco - (posicao - TAMANHO_CABECALHO) % tamanhoBloco;
+    }
+
+    static long precoEmPontoFixo(double preco, int escala) {
+        try {
+            return BigDecimal.valueOf(preco).setScale(escala, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("O preço " + preco + " não pode ser representado com " + escala + " casas decimais.", e);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: FormatoBinarioProduto <arquivo.csv> <arquivo.mpb> [escala] [tamanho do bloco]");
+            System.exit(1);
+        }
+        long registros = converter(Path.of(args[0]), Path.of(args[1]),
+                args.length > 2 ? Integer.parseInt(args[2]) : ESCALA_PADRAO,
+                args.length > 3 ? Integer.parseInt(args[3]) : TAMANHO_BLOCO_PADRAO);
+        System.out.printf("%d registros convertidos: %d bytes -> %d bytes%n",
+                registros, Files.size(Path.of(args[0])), Files.size(Path.of(args[1])));
+    }
+}
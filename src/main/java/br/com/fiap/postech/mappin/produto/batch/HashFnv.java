@@ -0,0 +1,32 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import java.nio.charset.StandardCharsets;
+
+// FNV-1a de 64 bits: os valores já gravados (impressões do delta) dependem destas constantes e da ordem dos bytes
+final class HashFnv {
+    private static final long BASE = 0xcbf29ce484222325L;
+    private static final long PRIMO = 0x100000001b3L;
+
+    private HashFnv() {
+    }
+
+    static long hash(String texto) {
+        long hash = BASE;
+        for (byte b : texto.getBytes(StandardCharsets.UTF_8)) {
+            hash = misturar(hash, b);
+        }
+        return hash;
+    }
+
+    // os quatro bytes do valor, do mais significativo para o menos
+    static long misturar(long hash, int valor) {
+        for (int deslocamento = 24; deslocamento >= 0; deslocamento -= 8) {
+            hash = misturar(hash, (byte) (valor >>> deslocamento));
+        }
+        return hash;
+    }
+
+    private static long misturar(long hash, byte b) {
+        return (hash ^ (b & 0xff)) * PRIMO;
+    }
+}
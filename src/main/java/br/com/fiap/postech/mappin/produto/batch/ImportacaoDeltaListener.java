@@ -0,0 +1,73 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.repository.ProdutoImpressaoRepository;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ImportacaoDeltaListener implements JobExecutionListener {
+    public static final String DELTA = "delta";
+
+    private static final int AUSENTES_LISTADOS = 20;
+
+    private final ProdutoImpressaoRepository produtoImpressaoRepository;
+    private final JobExplorer jobExplorer;
+    private final TransactionTemplate transactionTemplate;
+
+    public ImportacaoDeltaListener(ProdutoImpressaoRepository produtoImpressaoRepository, JobExplorer jobExplorer,
+                                   PlatformTransactionManager transactionManager) {
+        this.produtoImpressaoRepository = produtoImpressaoRepository;
+        this.jobExplorer = jobExplorer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        if (!Boolean.parseBoolean(jobExecution.getJobParameters().getString(DELTA))) {
+            return;
+        }
+        long inalterados = 0;
+        for (StepExecution stepExecution : ultimasExecucoesDosSteps(jobExecution)) {
+            inalterados += stepExecution.getExecutionContext().getLong(DeltaProdutoItemWriter.INALTERADOS, 0L);
+        }
+        String resumo = String.format("inalterados=%d", inalterados);
+        if (jobExecution.getStatus() == BatchStatus.COMPLETED) {
+            long execucao = jobExecution.getJobInstance().getInstanceId();
+            long ausentes = produtoImpressaoRepository.countByExecucaoNot(execucao);
+            if (ausentes > 0) {
+                List<String> nomes = produtoImpressaoRepository.findNomesAusentes(execucao, PageRequest.of(0, AUSENTES_LISTADOS));
+                transactionTemplate.executeWithoutResult(status -> produtoImpressaoRepository.removerAusentes(execucao));
+                resumo += String.format(", ausentes=%d %s", ausentes, nomes);
+            } else {
+                resumo += ", ausentes=0";
+            }
+        }
+        jobExecution.setExitStatus(jobExecution.getExitStatus().addExitDescription(resumo));
+    }
+
+    // num reinício as partições já concluídas não rodam de novo: a contagem delas está nas execuções anteriores da instância
+    private Iterable<StepExecution> ultimasExecucoesDosSteps(JobExecution jobExecution) {
+        Map<String, StepExecution> ultimas = new HashMap<>();
+        for (JobExecution anterior : jobExplorer.getJobExecutions(jobExecution.getJobInstance())) {
+            if (anterior.getId().equals(jobExecution.getId())) {
+                continue;
+            }
+            for (StepExecution stepExecution : anterior.getStepExecutions()) {
+                ultimas.merge(stepExecution.getStepName(), stepExecution, (a, b) -> a.getId() > b.getId() ? a : b);
+            }
+        }
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            ultimas.put(stepExecution.getStepName(), stepExecution);
+        }
+        return ultimas.values();
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.services.ProdutoService;
+import br.com.fiap.postech.mappin.produto.services.ProdutoValidacao;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class ImportacaoStreamConfiguration {
+    public static final String FLUXO = "fluxo";
+
+    private final ProdutoService produtoService;
+    private final FluxoImportacaoRegistry fluxoImportacaoRegistry;
+    private final ProdutoValidacao produtoValidacao;
+
+    @Autowired
+    public ImportacaoStreamConfiguration(ProdutoService produtoService, FluxoImportacaoRegistry fluxoImportacaoRegistry,
+                                         ProdutoValidacao produtoValidacao) {
+        this.produtoService = produtoService;
+        this.fluxoImportacaoRegistry = fluxoImportacaoRegistry;
+        this.produtoValidacao = produtoValidacao;
+    }
+
+    @Bean
+    public Job produtoStreamBatchJob(JobRepository jobRepository, Step stepStream) {
+        return new JobBuilder("cadastroProdutoLoteStream", jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .preventRestart()
+                .listener(new ResumoImportacaoListener())
+                .listener(new JobExecutionListener() {
+                    @Override
+                    public void afterJob(JobExecution jobExecution) {
+                        fluxoImportacaoRegistry.remover(jobExecution.getJobParameters().getString(FLUXO));
+                    }
+                })
+                .start(stepStream)
+                .build();
+    }
+
+    @Bean
+    public Step stepStream(JobRepository jobRepository, PlatformTransactionManager platformTransactionManager,
+                           ItemReader<Produto> produtoStreamBatchItemReader,
+                           MetricasLoteListener metricasLoteListener,
+                           ToleranciaFalhasLote toleranciaFalhasLote,
+                           TamanhoChunkAdaptativo tamanhoChunkAdaptativo) {
+        return toleranciaFalhasLote.aplicar(new StepBuilder("stepStream", jobRepository)
+                        .<Produto, Produto>chunk(tamanhoChunkAdaptativo, platformTransactionManager)
+                        .reader(produtoStreamBatchItemReader)
+                        .processor(new ProdutoProcessor(produtoValidacao))
+                        .writer(new ProdutoItemWriter(produtoService))
+                        .listener((StepExecutionListener) metricasLoteListener)
+                        .listener((ChunkListener) metricasLoteListener)
+                        .listener((ChunkListener) tamanhoChunkAdaptativo))
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public FilaProdutoItemReader produtoStreamBatchItemReader(@Value("#{jobParameters['fluxo']}") String fluxo) {
+        return new FilaProdutoItemReader(fluxoImportacaoRegistry.obter(fluxo));
+    }
+}
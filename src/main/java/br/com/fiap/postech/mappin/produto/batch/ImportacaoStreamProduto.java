@@ -0,0 +1,138 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+@Component
+public class ImportacaoStreamProduto {
+    // também é o tamanho máximo de uma linha: a que não cabe no buffer é rejeitada em vez de fazê-lo crescer
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final LoteJobLauncher loteJobLauncher;
+    private final Job job;
+    private final JobExplorer jobExplorer;
+    private final FluxoImportacaoRegistry fluxoImportacaoRegistry;
+    private final int capacidade;
+    private final Duration esperaMaxima;
+
+    public ImportacaoStreamProduto(LoteJobLauncher loteJobLauncher,
+                                   @Qualifier("produtoStreamBatchJob") Job job,
+                                   JobExplorer jobExplorer,
+                                   FluxoImportacaoRegistry fluxoImportacaoRegistry,
+                                   @Value("${mappin.lote.stream.capacidade:1000}") int capacidade,
+                                   @Value("${mappin.lote.stream.espera-maxima:PT30S}") Duration esperaMaxima) {
+        this.loteJobLauncher = loteJobLauncher;
+        this.job = job;
+        this.jobExplorer = jobExplorer;
+        this.fluxoImportacaoRegistry = fluxoImportacaoRegistry;
+        this.capacidade = capacidade;
+        this.esperaMaxima = esperaMaxima;
+    }
+
+    public JobExecution importar(InputStream entrada) throws IOException, JobExecutionException, InterruptedException {
+        String id = UUID.randomUUID().toString();
+        FluxoImportacao fluxo = fluxoImportacaoRegistry.criar(id, capacidade, esperaMaxima);
+        JobExecution jobExecution;
+        try {
+            JobParameters jobParameters = new JobParametersBuilder(this.jobExplorer)
+                    .addString(ImportacaoStreamConfiguration.FLUXO, id)
+                    .getNextJobParameters(job)
+                    .toJobParameters();
+            // o corpo é lido na thread da requisição, então o job precisa começar a consumir agora e não ficar na fila
+            jobExecution = loteJobLauncher.executarImediatamente(job, jobParameters);
+        } catch (JobExecutionException | RuntimeException e) {
+            fluxoImportacaoRegistry.remover(id);
+            throw e;
+        }
+        boolean concluido = false;
+        try {
+            publicar(entrada, fluxo);
+            fluxo.concluir();
+            concluido = true;
+        } catch (IllegalStateException exception) {
+            // a execução terminou antes do fim do envio (limite de rejeições, falha na gravação) ou parou de consumir
+            // por mais que a espera máxima: os chunks anteriores já foram gravados e o motivo fica na própria execução
+            JobExecution atual = jobExplorer.getJobExecution(jobExecution.getId());
+            return atual != null ? atual : jobExecution;
+        } finally {
+            if (!concluido) {
+                fluxo.abortar();
+            }
+        }
+        return jobExecution;
+    }
+
+    private static void publicar(InputStream entrada, FluxoImportacao fluxo) throws IOException, InterruptedException {
+        ProdutoCsvParser parser = new ProdutoCsvParser();
+        byte[] buffer = new byte[TAMANHO_BUFFER];
+        int ocupado = 0;
+        int varredura = 0;
+        long numeroLinha = 0;
+        boolean descartando = false;
+        int lidos;
+        ByteBuffer bytes = ByteBuffer.wrap(buffer);
+        while ((lidos = entrada.read(buffer, ocupado, buffer.length - ocupado)) != -1) {
+            ocupado += lidos;
+            int inicioLinha = 0;
+            for (int i = varredura; i < ocupado; i++) {
+                if (buffer[i] == '\n') {
+                    if (descartando) {
+                        descartando = false;
+                    } else {
+                        publicarLinha(parser, bytes, inicioLinha, i, ++numeroLinha, fluxo);
+                    }
+                    inicioLinha = i + 1;
+                }
+            }
+            System.arraycopy(buffer, inicioLinha, buffer, 0, ocupado - inicioLinha);
+            ocupado -= inicioLinha;
+            varredura = ocupado;
+            if (ocupado == buffer.length) {
+                // o restante da linha longa é descartado até a próxima quebra
+                if (!descartando) {
+                    fluxo.rejeitar(new FlatFileParseException("Linha excede o tamanho máximo suportado de " + TAMANHO_BUFFER
+                            + " bytes na linha " + ++numeroLinha, new String(buffer, 0, 80, StandardCharsets.UTF_8), (int) numeroLinha));
+                    descartando = true;
+                }
+                ocupado = 0;
+                varredura = 0;
+            }
+        }
+        if (ocupado > 0 && !descartando) {
+            publicarLinha(parser, bytes, 0, ocupado, ++numeroLinha, fluxo);
+        }
+    }
+
+    private static void publicarLinha(ProdutoCsvParser parser, ByteBuffer bytes, int inicio, int fim, long numeroLinha,
+                                      FluxoImportacao fluxo) throws InterruptedException {
+        if (fim > inicio && bytes.get(fim - 1) == '\r') {
+            fim--;
+        }
+        if (fim > inicio) {
+            Produto produto;
+            try {
+                produto = parser.parse(bytes, inicio, fim, numeroLinha);
+            } catch (FlatFileParseException exception) {
+                fluxo.rejeitar(exception);
+                return;
+            }
+            fluxo.publicar(produto);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+public class LoteJobLauncher implements DisposableBean {
+    public static final String INSTANCIA = "instancia";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoteJobLauncher.class);
+
+    private final JobRepository jobRepository;
+    private final String instancia;
+    private final AsyncTaskExecutor taskExecutor;
+    private final ThreadPoolTaskScheduler taskScheduler;
+    private final Semaphore admissao;
+    private final Semaphore agendamentos;
+    private final int execucoesSimultaneas;
+    private final int capacidade;
+    private final int capacidadeAgendadas;
+    private final int tentativasAgendadas;
+    private final Duration intervaloAgendadas;
+    private final Deque<Runnable> fila = new ArrayDeque<>();
+    private int emExecucao;
+
+    public LoteJobLauncher(JobRepository jobRepository,
+                           @Value("${mappin.lote.execucoes-simultaneas:2}") int execucoesSimultaneas,
+                           @Value("${mappin.lote.fila.capacidade:10}") int capacidadeFila,
+                           @Value("${mappin.lote.agendadas.capacidade:10}") int capacidadeAgendadas,
+                           @Value("${mappin.lote.agendadas.tentativas:10}") int tentativasAgendadas,
+                           @Value("${mappin.lote.agendadas.intervalo:PT30S}") Duration intervaloAgendadas,
+                           @Value("${mappin.lote.instancia:}") String instancia,
+                           Environment environment) {
+        this.jobRepository = jobRepository;
+        this.instancia = instancia.isBlank() ? nomeDoHost() : instancia;
+        this.execucoesSimultaneas = execucoesSimultaneas;
+        capacidade = execucoesSimultaneas + capacidadeFila;
+        admissao = new Semaphore(capacidade);
+        this.capacidadeAgendadas = capacidadeAgendadas;
+        agendamentos = new Semaphore(capacidadeAgendadas);
+        this.tentativasAgendadas = tentativasAgendadas;
+        this.intervaloAgendadas = intervaloAgendadas;
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor simpleAsyncTaskExecutor = new SimpleAsyncTaskExecutor("lote-job-");
+            simpleAsyncTaskExecutor.setVirtualThreads(true);
+            taskExecutor = simpleAsyncTaskExecutor;
+        } else {
+            ThreadPoolTaskExecutor threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+            threadPoolTaskExecutor.setCorePoolSize(execucoesSimultaneas);
+            threadPoolTaskExecutor.setMaxPoolSize(execucoesSimultaneas);
+            threadPoolTaskExecutor.setQueueCapacity(execucoesSimultaneas);
+            threadPoolTaskExecutor.setThreadNamePrefix("lote-job-");
+            threadPoolTaskExecutor.initialize();
+            taskExecutor = threadPoolTaskExecutor;
+        }
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setThreadNamePrefix("lote-agendamento-");
+        taskScheduler.initialize();
+    }
+
+    public JobExecution executar(Job job, JobParameters jobParameters) throws JobExecutionException {
+        return agendar(job, jobParameters, null);
+    }
+
+    // execuções agendadas só ocupam uma vaga de execução quando chega a hora de iniciar, então não bloqueiam as manuais;
+    // até lá ocupam uma vaga de agendamento, limitada à parte para que os agendamentos também possam ser recusados
+    public JobExecution agendar(Job job, JobParameters jobParameters, Instant inicio) throws JobExecutionException {
+        // parâmetro não identificador: marca a instância dona da execução, a única que a retoma ao reiniciar
+        jobParameters = new JobParametersBuilder(jobParameters)
+                .addString(INSTANCIA, instancia, false)
+                .toJobParameters();
+        if (inicio != null && inicio.isAfter(Instant.now())) {
+            return agendarParaDepois(job, jobParameters, inicio);
+        }
+        if (!admissao.tryAcquire()) {
+            throw new CapacidadeLoteEsgotadaException(
+                    "Limite de " + capacidade + " importações em execução ou na fila atingido. Tente novamente mais tarde.");
+        }
+        AtomicBoolean submetido = new AtomicBoolean();
+        try {
+            return launcher(tarefa -> {
+                submetido.set(true);
+                despachar(tarefa);
+            }).run(job, jobParameters);
+        } catch (JobExecutionException | RuntimeException e) {
+            if (!submetido.get()) {
+                admissao.release();
+            }
+            throw e;
+        }
+    }
+
+    // para quem não pode esperar na fila, como a importação por stream, que segura a requisição enquanto o job lê o corpo:
+    // só aceita se houver uma execução livre agora, senão recusa em vez de enfileirar
+    public JobExecution executarImediatamente(Job job, JobParameters jobParameters) throws JobExecutionException {
+        jobParameters = new JobParametersBuilder(jobParameters)
+                .addString(INSTANCIA, instancia, false)
+                .toJobParameters();
+        if (!admissao.tryAcquire()) {
+            throw new CapacidadeLoteEsgotadaException(
+                    "Limite de " + capacidade + " importações em execução ou na fila atingido. Tente novamente mais tarde.");
+        }
+        synchronized (fila) {
+            if (emExecucao >= execucoesSimultaneas) {
+                admissao.release();
+                throw new CapacidadeLoteEsgotadaException(
+                        "Todas as " + execucoesSimultaneas + " execuções simultâneas estão ocupadas. Tente novamente mais tarde.");
+            }
+            emExecucao++;
+        }
+        AtomicBoolean submetido = new AtomicBoolean();
+        try {
+            return launcher(tarefa -> {
+                submetido.set(true);
+                iniciar(tarefa);
+            }).run(job, jobParameters);
+        } catch (JobExecutionException | RuntimeException e) {
+            if (!submetido.get()) {
+                concluir();
+            }
+            throw e;
+        }
+    }
+
+    public String getInstancia() {
+        return instancia;
+    }
+
+    public int getVagasDisponiveis() {
+        return admissao.availablePermits();
+    }
+
+    public int getAgendamentosDisponiveis() {
+        return agendamentos.availablePermits();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        taskScheduler.shutdown();
+        if (taskExecutor instanceof DisposableBean disposableBean) {
+            disposableBean.destroy();
+        } else if (taskExecutor instanceof AutoCloseable autoCloseable) {
+            autoCloseable.close();
+        }
+    }
+
+    private static String nomeDoHost() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Não foi possível obter o nome do host; defina mappin.lote.instancia.", e);
+        }
+    }
+
+    private TaskExecutorJobLauncher launcher(TaskExecutor taskExecutor) throws JobExecutionException {
+        TaskExecutorJobLauncher jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.setTaskExecutor(taskExecutor);
+        try {
+            jobLauncher.afterPropertiesSet();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return jobLauncher;
+    }
+
+    private JobExecution agendarParaDepois(Job job, JobParameters jobParameters, Instant inicio) throws JobExecutionException {
+        if (!agendamentos.tryAcquire()) {
+            throw new CapacidadeLoteEsgotadaException(
+                    "Limite de " + capacidadeAgendadas + " importações agendadas atingido. Tente novamente mais tarde.");
+        }
+        try {
+            // o agendamento só é feito depois de run() devolver a execução, que é abandonada se as tentativas se esgotarem
+            AtomicReference<Runnable> tarefa = new AtomicReference<>();
+            JobExecution jobExecution = launcher(tarefa::set).run(job, jobParameters);
+            taskScheduler.schedule(() -> admitirAgendada(tarefa.get(), jobExecution, 1), inicio);
+            return jobExecution;
+        } catch (JobExecutionException | RuntimeException e) {
+            agendamentos.release();
+            throw e;
+        }
+    }
+
+    private void admitirAgendada(Runnable tarefa, JobExecution jobExecution, int tentativa) {
+        if (admissao.tryAcquire()) {
+            agendamentos.release();
+            despachar(tarefa);
+        } else if (tentativa >= tentativasAgendadas) {
+            agendamentos.release();
+            LOGGER.warn("Importação agendada {} abandonada após {} tentativas: limite de {} importações em execução ou na fila atingido.",
+                    jobExecution.getId(), tentativa, capacidade);
+            abandonar(jobExecution);
+        } else {
+            LOGGER.info("Importação agendada {} adiada por {}: limite de {} importações em execução ou na fila atingido.",
+                    jobExecution.getId(), intervaloAgendadas, capacidade);
+            taskScheduler.schedule(() -> admitirAgendada(tarefa, jobExecution, tentativa + 1), Instant.now().plus(intervaloAgendadas));
+        }
+    }
+
+    // a execução já foi gravada como STARTING; sem isto ficaria em andamento até a próxima subida da aplicação
+    private void abandonar(JobExecution jobExecution) {
+        jobExecution.setStatus(BatchStatus.FAILED);
+        jobExecution.setExitStatus(ExitStatus.FAILED.addExitDescription(
+                "Importação agendada abandonada após " + tentativasAgendadas + " tentativas sem vaga de execução."));
+        jobExecution.setEndTime(LocalDateTime.now());
+        jobRepository.update(jobExecution);
+    }
+
+    // a tarefa já tem uma vaga de admissão; aguarda na fila sem ocupar thread até haver uma execução livre
+    private void despachar(Runnable tarefa) {
+        synchronized (fila) {
+            if (emExecucao >= execucoesSimultaneas) {
+                fila.addLast(tarefa);
+                return;
+            }
+            emExecucao++;
+        }
+        iniciar(tarefa);
+    }
+
+    private void iniciar(Runnable tarefa) {
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    tarefa.run();
+                } finally {
+                    concluir();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            concluir();
+            throw e;
+        }
+    }
+
+    private void concluir() {
+        admissao.release();
+        Runnable proxima;
+        synchronized (fila) {
+            proxima = fila.pollFirst();
+            if (proxima == null) {
+                emExecucao--;
+                return;
+            }
+        }
+        try {
+            iniciar(proxima);
+        } catch (TaskRejectedException e) {
+            LOGGER.error("Importação da fila rejeitada pelo executor.", e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class MetricasLoteListener implements StepExecutionListener, ChunkListener {
+    private static final String SEPARADOR_PARTICAO = ":";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Map<Long, Double>> itensPorSegundo = new ConcurrentHashMap<>();
+    private final ThreadLocal<Timer.Sample> amostraChunk = new ThreadLocal<>();
+
+    public MetricasLoteListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        itensPorSegundo.computeIfAbsent(nomeStep(stepExecution), this::registrarGauge)
+                .put(stepExecution.getId(), 0d);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        Map<Long, Double> execucoes = itensPorSegundo.get(nomeStep(stepExecution));
+        if (execucoes != null) {
+            execucoes.remove(stepExecution.getId());
+        }
+        return stepExecution.getExitStatus();
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        amostraChunk.set(Timer.start(meterRegistry));
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        registrarChunk(stepExecution, "sucesso");
+        Map<Long, Double> execucoes = itensPorSegundo.get(nomeStep(stepExecution));
+        if (execucoes != null && stepExecution.getStartTime() != null) {
+            double segundos = Duration.between(stepExecution.getStartTime(), LocalDateTime.now()).toNanos() / 1e9;
+            if (segundos > 0) {
+                execucoes.put(stepExecution.getId(), stepExecution.getWriteCount() / segundos);
+            }
+        }
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        registrarChunk(context.getStepContext().getStepExecution(), "erro");
+    }
+
+    private void registrarChunk(StepExecution stepExecution, String resultado) {
+        Timer.Sample amostra = amostraChunk.get();
+        if (amostra == null) {
+            return;
+        }
+        amostraChunk.remove();
+        amostra.stop(Timer.builder("produto.lote.chunk")
+                .tag("step", nomeStep(stepExecution))
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private Map<Long, Double> registrarGauge(String step) {
+        Map<Long, Double> execucoes = new ConcurrentHashMap<>();
+        Gauge.builder("produto.lote.itens.por.segundo", execucoes,
+                        e -> e.values().stream().mapToDouble(Double::doubleValue).sum())
+                .tag("step", step)
+                .register(meterRegistry);
+        return execucoes;
+    }
+
+    private static String nomeStep(StepExecution stepExecution) {
+        String nome = stepExecution.getStepName();
+        int separador = nome.indexOf(SEPARADOR_PARTICAO);
+        return separador < 0 ? nome : nome.substring(0, separador);
+    }
+}
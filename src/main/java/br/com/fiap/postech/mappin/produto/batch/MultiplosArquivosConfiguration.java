@@ -0,0 +1,101 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.services.ProdutoService;
+import br.com.fiap.postech.mappin.produto.services.ProdutoValidacao;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.support.CompositeItemProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+@Configuration
+public class MultiplosArquivosConfiguration {
+    public static final String DIRETORIO = "diretorioArquivosProdutoCsv";
+
+    private final ProdutoService produtoService;
+    private final ProdutoValidacao produtoValidacao;
+
+    @Autowired
+    public MultiplosArquivosConfiguration(ProdutoService produtoService, ProdutoValidacao produtoValidacao) {
+        this.produtoService = produtoService;
+        this.produtoValidacao = produtoValidacao;
+    }
+
+    @Bean
+    public Job produtoMultiplosArquivosBatchJob(JobRepository jobRepository, Step stepMultiplosArquivos) {
+        return new JobBuilder("cadastroProdutoLoteMultiplosArquivos", jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .listener(new ResumoImportacaoListener())
+                .listener(new RemoverArquivoImportadoListener(DIRETORIO))
+                .start(stepMultiplosArquivos)
+                .build();
+    }
+
+    @Bean
+    public Step stepMultiplosArquivos(JobRepository jobRepository,
+                                      Step stepMultiplosArquivosParticao,
+                                      Partitioner produtoMultiplosArquivosPartitioner,
+                                      TaskExecutor loteTaskExecutor) {
+        return new StepBuilder("stepMultiplosArquivos", jobRepository)
+                .partitioner("stepMultiplosArquivosParticao", produtoMultiplosArquivosPartitioner)
+                .step(stepMultiplosArquivosParticao)
+                .taskExecutor(loteTaskExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step stepMultiplosArquivosParticao(JobRepository jobRepository, PlatformTransactionManager platformTransactionManager,
+                                              ItemReader<Produto> produtoMultiplosArquivosItemReader,
+                                              ItemProcessor<Produto, Produto> produtoMultiplosArquivosItemProcessor,
+                                              MetricasLoteListener metricasLoteListener,
+                                              ToleranciaFalhasLote toleranciaFalhasLote,
+                                              TamanhoChunkAdaptativo tamanhoChunkAdaptativo) {
+        return toleranciaFalhasLote.aplicar(new StepBuilder("stepMultiplosArquivosParticao", jobRepository)
+                        .<Produto, Produto>chunk(tamanhoChunkAdaptativo, platformTransactionManager)
+                        .reader(produtoMultiplosArquivosItemReader)
+                        .processor(produtoMultiplosArquivosItemProcessor)
+                        .writer(new ProdutoItemWriter(produtoService))
+                        .listener((StepExecutionListener) metricasLoteListener)
+                        .listener((ChunkListener) metricasLoteListener)
+                        .listener((ChunkListener) tamanhoChunkAdaptativo))
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public ArquivosProdutoPartitioner produtoMultiplosArquivosPartitioner(@Value("#{jobParameters['diretorioArquivosProdutoCsv']}") String diretorio) {
+        return new ArquivosProdutoPartitioner(Path.of(diretorio));
+    }
+
+    @Bean
+    @StepScope
+    public ArquivoMapeadoProdutoItemReader produtoMultiplosArquivosItemReader(@Value("#{stepExecutionContext['arquivo']}") String arquivo) {
+        return new ArquivoMapeadoProdutoItemReader(new FileSystemResource(arquivo));
+    }
+
+    @Bean
+    @StepScope
+    public CompositeItemProcessor<Produto, Produto> produtoMultiplosArquivosItemProcessor(@Value("#{stepExecutionContext['substituidos']}") String substituidos) throws IOException {
+        return new CompositeItemProcessor<>(List.of(ConflitoArquivosProcessor.carregar(substituidos), new ProdutoProcessor(produtoValidacao)));
+    }
+}
@@ -0,0 +1,188 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.springframework.batch.item.file.FlatFileParseException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class ProdutoCsvParser {
+    private static final byte SEPARADOR = ',';
+    private static final byte ASPAS = '"';
+    private static final long LIMITE_MANTISSA_EXATA = 1L << 53;
+    private static final double[] POTENCIAS_DE_DEZ = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private byte[] nome = new byte[128];
+    private ByteBuffer buffer;
+    private int inicio;
+    private int fim;
+    private int cursor;
+    private long numeroLinha;
+
+    public Produto parse(ByteBuffer buffer, int inicio, int fim, long numeroLinha) {
+        this.buffer = buffer;
+        this.inicio = inicio;
+        this.fim = fim;
+        this.cursor = inicio;
+        this.numeroLinha = numeroLinha;
+        try {
+            String nomeProduto = lerNome();
+            lerSeparador();
+            int quantidade = lerInteiro();
+            lerSeparador();
+            double preco = lerDecimal();
+            pularEspacos();
+            if (cursor != fim) {
+                throw erro("Quantidade de colunas incorreta, esperado: nome,quantidade,preco");
+            }
+            return new Produto(nomeProduto, quantidade, preco);
+        } finally {
+            this.buffer = null;
+        }
+    }
+
+    private String lerNome() {
+        int tamanho = 0;
+        if (cursor < fim && buffer.get(cursor) == ASPAS) {
+            cursor++;
+            while (true) {
+                if (cursor >= fim) {
+                    throw erro("Aspas não fechadas no nome do produto");
+                }
+                byte b = buffer.get(cursor++);
+                if (b == ASPAS) {
+                    if (cursor < fim && buffer.get(cursor) == ASPAS) {
+                        cursor++;
+                    } else {
+                        break;
+                    }
+                }
+                tamanho = guardarByteDoNome(tamanho, b);
+            }
+        } else {
+            while (cursor < fim && buffer.get(cursor) != SEPARADOR) {
+                tamanho = guardarByteDoNome(tamanho, buffer.get(cursor++));
+            }
+        }
+        return new String(nome, 0, tamanho, StandardCharsets.UTF_8);
+    }
+
+    private int guardarByteDoNome(int tamanho, byte b) {
+        if (tamanho == nome.length) {
+            nome = Arrays.copyOf(nome, nome.length * 2);
+        }
+        nome[tamanho] = b;
+        return tamanho + 1;
+    }
+
+    private void lerSeparador() {
+        if (cursor >= fim || buffer.get(cursor) != SEPARADOR) {
+            throw erro("Quantidade de colunas incorreta, esperado: nome,quantidade,preco");
+        }
+        cursor++;
+    }
+
+    private int lerInteiro() {
+        pularEspacos();
+        boolean negativo = lerSinal();
+        long valor = 0;
+        int digitos = 0;
+        while (cursor < fim) {
+            int digito = buffer.get(cursor) - '0';
+            if (digito < 0 || digito > 9) {
+                break;
+            }
+            valor = valor * 10 + digito;
+            if (valor > Integer.MAX_VALUE + 1L) {
+                throw erro("Quantidade fora do intervalo permitido");
+            }
+            digitos++;
+            cursor++;
+        }
+        if (digitos == 0) {
+            throw erro("Quantidade inválida");
+        }
+        valor = negativo ? -valor : valor;
+        if (valor > Integer.MAX_VALUE) {
+            throw erro("Quantidade fora do intervalo permitido");
+        }
+        pularEspacos();
+        return (int) valor;
+    }
+
+    private double lerDecimal() {
+        pularEspacos();
+        int inicioNumero = cursor;
+        boolean negativo = lerSinal();
+        long mantissa = 0;
+        int digitos = 0;
+        int escala = 0;
+        boolean fracao = false;
+        while (cursor < fim) {
+            byte b = buffer.get(cursor);
+            if (b == '.' && !fracao) {
+                fracao = true;
+            } else if (b >= '0' && b <= '9') {
+                if (digitos < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                }
+                digitos++;
+                if (fracao) {
+                    escala++;
+                }
+            } else {
+                break;
+            }
+            cursor++;
+        }
+        if (digitos == 0) {
+            throw erro("Preço inválido");
+        }
+        if (cursor < fim && (buffer.get(cursor) | 0x20) == 'e') {
+            while (cursor < fim && buffer.get(cursor) != SEPARADOR && buffer.get(cursor) != ' ') {
+                cursor++;
+            }
+            return lerDecimalPorTexto(inicioNumero);
+        }
+        if (digitos > 18 || mantissa >= LIMITE_MANTISSA_EXATA || escala >= POTENCIAS_DE_DEZ.length) {
+            return lerDecimalPorTexto(inicioNumero);
+        }
+        double valor = escala == 0 ? mantissa : mantissa / POTENCIAS_DE_DEZ[escala];
+        return negativo ? -valor : valor;
+    }
+
+    private double lerDecimalPorTexto(int inicioNumero) {
+        try {
+            return Double.parseDouble(texto(inicioNumero, cursor));
+        } catch (NumberFormatException e) {
+            throw erro("Preço inválido");
+        }
+    }
+
+    private boolean lerSinal() {
+        if (cursor < fim && (buffer.get(cursor) == '-' || buffer.get(cursor) == '+')) {
+            return buffer.get(cursor++) == '-';
+        }
+        return false;
+    }
+
+    private void pularEspacos() {
+        while (cursor < fim && buffer.get(cursor) == ' ') {
+            cursor++;
+        }
+    }
+
+    private String texto(int de, int ate) {
+        byte[] bytes = new byte[ate - de];
+        buffer.get(de, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private FlatFileParseException erro(String mensagem) {
+        return new FlatFileParseException(mensagem + " na linha " + numeroLinha, texto(inicio, fim), (int) numeroLinha);
+    }
+}
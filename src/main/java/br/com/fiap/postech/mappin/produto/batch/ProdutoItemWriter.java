@@ -0,0 +1,32 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.services.ProdutoService;
+import br.com.fiap.postech.mappin.produto.services.ProdutoValidacao;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+public class ProdutoItemWriter implements ItemWriter<Produto> {
+
+    private final ProdutoService produtoService;
+
+    public ProdutoItemWriter(ProdutoService produtoService) {
+        this.produtoService = produtoService;
+    }
+
+    @Override
+    public void write(Chunk<? extends Produto> chunk) {
+        try {
+            produtoService.saveAll(chunk.getItems());
+        } catch (DataIntegrityViolationException exception) {
+            if (!ProdutoValidacao.violaNomeUnico(exception)) {
+                throw exception;
+            }
+            // outra partição (ou cadastro) inseriu um dos nomes depois da consulta; a transação do chunk já está perdida,
+            // então a nova tentativa fica com a política de retentativas do step, que repete o chunk e encontra o nome gravado
+            throw new ConcurrencyFailureException("Outro cadastro gravou um dos nomes do chunk ao mesmo tempo.", exception);
+        }
+    }
+}
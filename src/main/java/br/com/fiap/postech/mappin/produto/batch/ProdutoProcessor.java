@@ -1,14 +1,21 @@
 package br.com.fiap.postech.mappin.produto.batch;
 
 import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.services.ProdutoValidacao;
 import org.springframework.batch.item.ItemProcessor;
 
 import java.time.LocalDateTime;
 
 public class ProdutoProcessor implements ItemProcessor<Produto, Produto> {
+    private final ProdutoValidacao produtoValidacao;
+
+    public ProdutoProcessor(ProdutoValidacao produtoValidacao) {
+        this.produtoValidacao = produtoValidacao;
+    }
 
     @Override
     public Produto process(Produto produto) throws Exception {
+        produtoValidacao.valida(produto);
         produto.setDataAtualizacao(LocalDateTime.now());
         return produto;
     }
@@ -0,0 +1,115 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+@Component
+@StepScope
+public class RejeitadosSkipListener implements SkipListener<Produto, Produto>, StepExecutionListener {
+    public static final String ARQUIVO_REJEITADOS = "arquivoRejeitados";
+
+    private static final String CABECALHO = "linha,registro,motivo";
+
+    private final Path diretorio;
+    private StepExecution stepExecution;
+    private Path arquivo;
+    private BufferedWriter saida;
+
+    public RejeitadosSkipListener(@Value("${mappin.lote.rejeitados.diretorio:${java.io.tmpdir}/mappin-rejeitados}") Path diretorio) {
+        this.diretorio = diretorio;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        this.stepExecution = stepExecution;
+    }
+
+    @Override
+    public synchronized void onSkipInRead(Throwable t) {
+        if (t instanceof FlatFileParseException flatFileParseException) {
+            registrar(String.valueOf(flatFileParseException.getLineNumber()), flatFileParseException.getInput(), t);
+        } else {
+            registrar("", "", t);
+        }
+    }
+
+    @Override
+    public synchronized void onSkipInProcess(Produto produto, Throwable t) {
+        registrar("", registro(produto), t);
+    }
+
+    @Override
+    public synchronized void onSkipInWrite(Produto produto, Throwable t) {
+        registrar("", registro(produto), t);
+    }
+
+    @Override
+    public synchronized ExitStatus afterStep(StepExecution stepExecution) {
+        if (saida == null) {
+            return null;
+        }
+        try {
+            saida.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            saida = null;
+        }
+        return stepExecution.getExitStatus().addExitDescription("rejeitados em " + arquivo);
+    }
+
+    private void registrar(String linha, String registro, Throwable t) {
+        try {
+            if (saida == null) {
+                abrir();
+            }
+            saida.write(linha + "," + escapar(registro) + "," + escapar(t.getMessage()));
+            saida.newLine();
+            saida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível registrar a linha rejeitada em " + arquivo, e);
+        }
+    }
+
+    private void abrir() throws IOException {
+        String step = stepExecution.getStepName().replaceAll("[^A-Za-z0-9_-]", "-");
+        arquivo = Files.createDirectories(diretorio)
+                .resolve("rejeitados-" + stepExecution.getJobExecutionId() + "-" + step + ".csv");
+        boolean existente = Files.exists(arquivo);
+        saida = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (!existente) {
+            saida.write(CABECALHO);
+            saida.newLine();
+        }
+        stepExecution.getExecutionContext().putString(ARQUIVO_REJEITADOS, arquivo.toString());
+    }
+
+    private static String registro(Produto produto) {
+        return produto.getNome() + "," + produto.getQuantidade() + "," + produto.getPreco();
+    }
+
+    private static String escapar(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
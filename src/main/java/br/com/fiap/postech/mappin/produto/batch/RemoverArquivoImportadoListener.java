@@ -0,0 +1,30 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+public class RemoverArquivoImportadoListener implements JobExecutionListener {
+    private final String parametro;
+
+    public RemoverArquivoImportadoListener(String parametro) {
+        this.parametro = parametro;
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        String arquivo = jobExecution.getJobParameters().getString(parametro);
+        if (arquivo == null || jobExecution.getStatus() != BatchStatus.COMPLETED) {
+            return;
+        }
+        try {
+            AreaPreparacaoLote.remover(Path.of(arquivo));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResumoImportacaoListener implements JobExecutionListener {
+    private static final String SEPARADOR_PARTICAO = ":";
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        long lidos = 0;
+        long gravados = 0;
+        long filtrados = 0;
+        long ignorados = 0;
+        int particoes = 0;
+        List<String> rejeitados = new ArrayList<>();
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            if (stepExecution.getExecutionContext().containsKey(RejeitadosSkipListener.ARQUIVO_REJEITADOS)) {
+                rejeitados.add(stepExecution.getExecutionContext().getString(RejeitadosSkipListener.ARQUIVO_REJEITADOS));
+            }
+            if (stepExecution.getStepName().contains(SEPARADOR_PARTICAO)) {
+                particoes++;
+                continue;
+            }
+            lidos += stepExecution.getReadCount();
+            gravados += stepExecution.getWriteCount();
+            filtrados += stepExecution.getFilterCount();
+            ignorados += stepExecution.getSkipCount();
+        }
+        String resumo = String.format("lidos=%d, gravados=%d, filtrados=%d, ignorados=%d, particoes=%d",
+                lidos, gravados, filtrados, ignorados, particoes);
+        if (!rejeitados.isEmpty()) {
+            resumo += ", rejeitados=" + rejeitados;
+        }
+        jobExecution.setExitStatus(jobExecution.getExitStatus().addExitDescription(resumo));
+    }
+}
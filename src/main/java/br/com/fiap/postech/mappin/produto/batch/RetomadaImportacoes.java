@@ -0,0 +1,139 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.*;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RetomadaImportacoes implements ApplicationRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetomadaImportacoes.class);
+    private static final String DATA_INICIO = "launchDate";
+    private static final Set<BatchStatus> REINICIAVEIS = Set.of(BatchStatus.FAILED, BatchStatus.STOPPED);
+
+    private final JobExplorer jobExplorer;
+    private final JobRepository jobRepository;
+    private final LoteJobLauncher loteJobLauncher;
+    private final Map<String, Importacao> importacoes;
+    private final boolean habilitada;
+
+    @Autowired
+    public RetomadaImportacoes(JobExplorer jobExplorer, JobRepository jobRepository, LoteJobLauncher loteJobLauncher,
+                               @Qualifier("produtoExecucaoProgramadaBatchJob") Job job,
+                               @Qualifier("produtoMultiplosArquivosBatchJob") Job jobMultiplosArquivos,
+                               @Value("${mappin.lote.retomada.habilitada:true}") boolean habilitada) {
+        this.jobExplorer = jobExplorer;
+        this.jobRepository = jobRepository;
+        this.loteJobLauncher = loteJobLauncher;
+        this.importacoes = Map.of(
+                job.getName(), new Importacao(job, ExecucaoProgramadaConfiguration.ARQUIVO),
+                jobMultiplosArquivos.getName(), new Importacao(jobMultiplosArquivos, MultiplosArquivosConfiguration.DIRETORIO));
+        this.habilitada = habilitada;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!habilitada) {
+            return;
+        }
+        String instancia = loteJobLauncher.getInstancia();
+        for (String jobName : jobExplorer.getJobNames()) {
+            for (JobExecution jobExecution : jobExplorer.findRunningJobExecutions(jobName)) {
+                // com várias instâncias no mesmo banco, as execuções das outras continuam rodando nelas
+                if (!instancia.equals(jobExecution.getJobParameters().getString(LoteJobLauncher.INSTANCIA))) {
+                    LOGGER.info("Execução {} em andamento pertence a outra instância e não será retomada por {}.",
+                            jobExecution.getId(), instancia);
+                    continue;
+                }
+                marcarComoInterrompida(jobExecution);
+                Importacao importacao = importacoes.get(jobName);
+                if (importacao != null) {
+                    retomar(importacao, jobExecution);
+                }
+            }
+        }
+    }
+
+    public JobExecution reiniciar(Long executionId) throws JobExecutionException {
+        JobExecution jobExecution = jobExplorer.getJobExecution(executionId);
+        if (jobExecution == null) {
+            throw new IllegalArgumentException("Execução não encontrada com o ID: " + executionId);
+        }
+        Importacao importacao = importacoes.get(jobExecution.getJobInstance().getJobName());
+        if (importacao == null) {
+            throw new IllegalArgumentException("A execução " + executionId + " não pertence a uma importação de arquivo.");
+        }
+        if (!REINICIAVEIS.contains(jobExecution.getStatus())) {
+            throw new IllegalArgumentException("Somente execuções com falha ou paradas podem ser reiniciadas, status atual: " + jobExecution.getStatus());
+        }
+        if (!importacao.arquivoDisponivel(jobExecution.getJobParameters())) {
+            throw new IllegalArgumentException("O arquivo da execução " + executionId + " não está mais disponível para reinício.");
+        }
+        return loteJobLauncher.executar(importacao.job, jobExecution.getJobParameters());
+    }
+
+    private void marcarComoInterrompida(JobExecution jobExecution) {
+        LocalDateTime agora = LocalDateTime.now();
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            if (stepExecution.getStatus().isRunning()) {
+                stepExecution.setStatus(BatchStatus.FAILED);
+                stepExecution.setExitStatus(ExitStatus.FAILED);
+                stepExecution.setEndTime(agora);
+                jobRepository.update(stepExecution);
+            }
+        }
+        jobExecution.setStatus(BatchStatus.FAILED);
+        jobExecution.setExitStatus(ExitStatus.FAILED.addExitDescription("Execução interrompida pelo encerramento da aplicação."));
+        jobExecution.setEndTime(agora);
+        jobRepository.update(jobExecution);
+    }
+
+    private void retomar(Importacao importacao, JobExecution jobExecution) {
+        JobParameters jobParameters = jobExecution.getJobParameters();
+        if (!importacao.arquivoDisponivel(jobParameters)) {
+            LOGGER.warn("Execução {} interrompida não será retomada: arquivo {} não encontrado.",
+                    jobExecution.getId(), jobParameters.getString(importacao.parametroArquivo));
+            return;
+        }
+        Date dataInicio = jobParameters.getDate(DATA_INICIO);
+        try {
+            JobExecution retomada = loteJobLauncher.agendar(importacao.job, jobParameters, dataInicio != null ? dataInicio.toInstant() : Instant.now());
+            LOGGER.info("Execução {} interrompida retomada como execução {}.", jobExecution.getId(), retomada.getId());
+        } catch (JobExecutionException | RuntimeException e) {
+            LOGGER.error("Não foi possível retomar a execução {}.", jobExecution.getId(), e);
+        }
+    }
+
+    private static final class Importacao {
+        private final Job job;
+        private final String parametroArquivo;
+
+        private Importacao(Job job, String parametroArquivo) {
+            this.job = job;
+            this.parametroArquivo = parametroArquivo;
+        }
+
+        private boolean arquivoDisponivel(JobParameters jobParameters) {
+            String arquivo = jobParameters.getString(parametroArquivo);
+            return arquivo != null && Files.exists(Path.of(arquivo));
+        }
+    }
+}
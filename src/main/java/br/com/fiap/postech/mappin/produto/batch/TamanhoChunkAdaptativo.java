@@ -0,0 +1,117 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+@Component
+@StepScope
+public class TamanhoChunkAdaptativo extends SimpleCompletionPolicy implements ChunkListener {
+    private static final String SEPARADOR_PARTICAO = ":";
+    private static final double PASSO_MINIMO = 1.05;
+
+    private final int minimo;
+    private final int maximo;
+    private final long latenciaMaxima;
+    private final double fator;
+    private final LongSupplier relogio;
+    private final DistributionSummary tamanhos;
+    private int direcao = 1;
+    private double passo;
+    private double vazaoAnterior;
+    private long inicioChunk;
+    private int itensNoChunk;
+
+    @Autowired
+    public TamanhoChunkAdaptativo(@Value("${mappin.lote.chunk.minimo:16}") int minimo,
+                                  @Value("${mappin.lote.chunk.maximo:2000}") int maximo,
+                                  @Value("${mappin.lote.chunk.inicial:100}") int inicial,
+                                  @Value("${mappin.lote.chunk.latencia-maxima:PT1S}") Duration latenciaMaxima,
+                                  @Value("${mappin.lote.chunk.fator:1.5}") double fator,
+                                  @Value("#{stepExecution.stepName}") String step,
+                                  MeterRegistry meterRegistry) {
+        this(minimo, maximo, inicial, latenciaMaxima, fator, step, meterRegistry, System::nanoTime);
+    }
+
+    TamanhoChunkAdaptativo(int minimo, int maximo, int inicial, Duration latenciaMaxima, double fator, String step,
+                           MeterRegistry meterRegistry, LongSupplier relogio) {
+        if (minimo < 1 || maximo < minimo || fator <= 1) {
+            throw new IllegalArgumentException("Faixa de tamanho de chunk inválida: minimo=" + minimo + ", maximo=" + maximo + ", fator=" + fator);
+        }
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.latenciaMaxima = latenciaMaxima.toNanos();
+        this.fator = fator;
+        this.passo = fator;
+        this.relogio = relogio;
+        int separador = step.indexOf(SEPARADOR_PARTICAO);
+        this.tamanhos = DistributionSummary.builder("produto.lote.chunk.tamanho")
+                .tag("step", separador < 0 ? step : step.substring(0, separador))
+                .register(meterRegistry);
+        setChunkSize(limitar(inicial));
+    }
+
+    @Override
+    public void update(RepeatContext context) {
+        super.update(context);
+        itensNoChunk++;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        inicioChunk = relogio.getAsLong();
+        itensNoChunk = 0;
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        long duracao = relogio.getAsLong() - inicioChunk;
+        int tamanho = getChunkSize();
+        if (itensNoChunk < tamanho || duracao <= 0) {
+            return;
+        }
+        double vazao = itensNoChunk * 1e9 / duracao;
+        if (duracao > latenciaMaxima) {
+            direcao = -1;
+            passo = fator;
+        } else if (vazao < vazaoAnterior) {
+            direcao = -direcao;
+            passo = Math.max(PASSO_MINIMO, 1 + (passo - 1) / 2);
+        } else {
+            passo = Math.min(fator, 1 + (passo - 1) * 1.25);
+        }
+        vazaoAnterior = vazao;
+        ajustar(direcao > 0 ? tamanho * passo : tamanho / passo);
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        direcao = -1;
+        passo = fator;
+        vazaoAnterior = 0;
+        ajustar(getChunkSize() / fator);
+    }
+
+    private void ajustar(double tamanho) {
+        int novoTamanho = limitar((int) Math.round(tamanho));
+        if (novoTamanho == getChunkSize() && (novoTamanho == minimo || novoTamanho == maximo)) {
+            direcao = -direcao;
+        }
+        setChunkSize(novoTamanho);
+        tamanhos.record(novoTamanho);
+    }
+
+    private int limitar(int tamanho) {
+        return Math.max(minimo, Math.min(maximo, tamanho));
+    }
+}
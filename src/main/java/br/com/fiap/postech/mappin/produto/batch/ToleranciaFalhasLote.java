@@ -0,0 +1,55 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.step.builder.FaultTolerantStepBuilder;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.retry.backoff.ExponentialBackOffPolicy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class ToleranciaFalhasLote {
+    private final int limiteRejeicoes;
+    private final int tentativas;
+    private final Duration intervaloInicial;
+    private final Duration intervaloMaximo;
+    private final RejeitadosSkipListener rejeitadosSkipListener;
+
+    @Autowired
+    public ToleranciaFalhasLote(@Value("${mappin.lote.rejeicoes.limite:1000}") int limiteRejeicoes,
+                                @Value("${mappin.lote.retentativas.limite:3}") int tentativas,
+                                @Value("${mappin.lote.retentativas.intervalo-inicial:PT0.1S}") Duration intervaloInicial,
+                                @Value("${mappin.lote.retentativas.intervalo-maximo:PT5S}") Duration intervaloMaximo,
+                                RejeitadosSkipListener rejeitadosSkipListener) {
+        this.limiteRejeicoes = limiteRejeicoes;
+        this.tentativas = tentativas;
+        this.intervaloInicial = intervaloInicial;
+        this.intervaloMaximo = intervaloMaximo;
+        this.rejeitadosSkipListener = rejeitadosSkipListener;
+    }
+
+    public FaultTolerantStepBuilder<Produto, Produto> aplicar(SimpleStepBuilder<Produto, Produto> stepBuilder) {
+        ExponentialBackOffPolicy backOffPolicy = new ExponentialBackOffPolicy();
+        backOffPolicy.setInitialInterval(intervaloInicial.toMillis());
+        backOffPolicy.setMaxInterval(intervaloMaximo.toMillis());
+        backOffPolicy.setMultiplier(2);
+        FaultTolerantStepBuilder<Produto, Produto> faultTolerantStepBuilder = stepBuilder.faultTolerant()
+                .skipLimit(limiteRejeicoes)
+                .skip(FlatFileParseException.class)
+                .skip(IllegalArgumentException.class)
+                .noRollback(IllegalArgumentException.class)
+                .retryLimit(tentativas)
+                .retry(TransientDataAccessException.class)
+                .backOffPolicy(backOffPolicy)
+                .listener((SkipListener<Produto, Produto>) rejeitadosSkipListener);
+        faultTolerantStepBuilder.listener((StepExecutionListener) rejeitadosSkipListener);
+        return faultTolerantStepBuilder;
+    }
+}
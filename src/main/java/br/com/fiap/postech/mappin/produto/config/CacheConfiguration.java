@@ -0,0 +1,29 @@
+package br.com.fiap.postech.mappin.produto.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+    public static final String PRODUTOS = "produtos";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${mappin.cache.produtos.tamanho-maximo:10000}") long tamanhoMaximo,
+                                     @Value("${mappin.cache.produtos.ttl:PT5M}") Duration ttl) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(PRODUTOS);
+        caffeineCacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
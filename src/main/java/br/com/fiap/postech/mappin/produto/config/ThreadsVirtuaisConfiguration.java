@@ -0,0 +1,49 @@
+package br.com.fiap.postech.mappin.produto.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class ThreadsVirtuaisConfiguration {
+
+    @Bean
+    public static BeanPostProcessor limitadorConexoesPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource
+                        && !(bean instanceof LimitadorConexoesDataSource)
+                        && Threading.VIRTUAL.isActive(environment)) {
+                    int limite = environment.getProperty("mappin.jdbc.conexoes-simultaneas", Integer.class,
+                            environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                    Duration espera = environment.getProperty("mappin.jdbc.espera-conexao", Duration.class, Duration.ofSeconds(30));
+                    return new LimitadorConexoesDataSource(dataSource, limite, espera);
+                }
+                return bean;
+            }
+        };
+    }
+
+    public static AsyncTaskExecutor taskExecutor(Environment environment, String prefixo, int threads) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor(prefixo);
+            taskExecutor.setVirtualThreads(true);
+            taskExecutor.setConcurrencyLimit(threads);
+            return taskExecutor;
+        }
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(threads);
+        taskExecutor.setMaxPoolSize(threads);
+        taskExecutor.setThreadNamePrefix(prefixo);
+        return taskExecutor;
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.fiap.postech.mappin.produto.controller;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+final class CursorProduto {
+    private static final int TAMANHO_UUID = 36;
+
+    private CursorProduto() {
+    }
+
+    static ScrollPosition decodificar(String cursor) {
+        if (cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        String valor;
+        try {
+            valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+        if (valor.length() <= TAMANHO_UUID) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+        Map<String, Object> chaves = new LinkedHashMap<>();
+        chaves.put("nome", valor.substring(TAMANHO_UUID));
+        chaves.put("id", UUID.fromString(valor.substring(0, TAMANHO_UUID)));
+        return ScrollPosition.forward(chaves);
+    }
+
+    static String codificar(Window<Produto> janela) {
+        if (!janela.hasNext() || janela.isEmpty()) {
+            return null;
+        }
+        Produto ultimo = janela.getContent().get(janela.size() - 1);
+        String valor = ultimo.getId().toString() + ultimo.getNome();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.fiap.postech.mappin.produto.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/produto/estoque-baixo")
+public class EstoqueBaixoController {
+    private final EstoqueBaixoEmissores estoqueBaixoEmissores;
+
+    @Autowired
+    public EstoqueBaixoController(EstoqueBaixoEmissores estoqueBaixoEmissores) {
+        this.estoqueBaixoEmissores = estoqueBaixoEmissores;
+    }
+
+    @Operation(summary = "acompanha, via Server-Sent Events, os produtos cujo estoque cruzou o limite de estoque baixo")
+    @GetMapping(
+            value = "/eventos",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public ResponseEntity<?> assinar() {
+        try {
+            return ResponseEntity.ok(estoqueBaixoEmissores.assinar());
+        } catch (IllegalStateException exception) {
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+}
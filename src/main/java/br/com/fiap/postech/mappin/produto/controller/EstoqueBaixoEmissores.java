@@ -0,0 +1,130 @@
+package br.com.fiap.postech.mappin.produto.controller;
+
+import br.com.fiap.postech.mappin.produto.services.EstoqueBaixoEvent;
+import br.com.fiap.postech.mappin.produto.services.EstoqueBaixoListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+public class EstoqueBaixoEmissores implements EstoqueBaixoListener, DisposableBean {
+    static final String EVENTO = "estoque-baixo";
+
+    private final int capacidade;
+    private final Duration timeout;
+    private final int assinantesMaximo;
+    private final ThreadPoolTaskExecutor taskExecutor;
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final Counter eventosDescartados;
+
+    @Autowired
+    public EstoqueBaixoEmissores(@Value("${mappin.estoque.baixo.sse.capacidade:256}") int capacidade,
+                                 @Value("${mappin.estoque.baixo.sse.timeout:PT30M}") Duration timeout,
+                                 @Value("${mappin.estoque.baixo.sse.assinantes-maximo:1000}") int assinantesMaximo,
+                                 @Value("${mappin.estoque.baixo.sse.threads:2}") int threads,
+                                 MeterRegistry meterRegistry) {
+        this.capacidade = capacidade;
+        this.timeout = timeout;
+        this.assinantesMaximo = assinantesMaximo;
+        this.taskExecutor = new ThreadPoolTaskExecutor();
+        this.taskExecutor.setCorePoolSize(threads);
+        this.taskExecutor.setMaxPoolSize(threads);
+        this.taskExecutor.setQueueCapacity(assinantesMaximo);
+        this.taskExecutor.setThreadNamePrefix("estoque-baixo-sse-");
+        this.taskExecutor.initialize();
+        this.eventosDescartados = meterRegistry.counter("produto.estoque.baixo.descartados", "etapa", "assinante");
+    }
+
+    public SseEmitter assinar() {
+        if (assinantes.size() >= assinantesMaximo) {
+            throw new IllegalStateException("Limite de " + assinantesMaximo + " assinantes de estoque baixo atingido. Tente novamente mais tarde.");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Assinante assinante = new Assinante(emitter);
+        assinantes.add(assinante);
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> assinantes.remove(assinante));
+        emitter.onError(e -> assinantes.remove(assinante));
+        return emitter;
+    }
+
+    // cada assinante tem fila própria e limitada: um cliente lento perde os avisos mais antigos sem atrasar o monitor
+    @Override
+    public void estoqueBaixo(EstoqueBaixoEvent evento) {
+        for (Assinante assinante : assinantes) {
+            assinante.enfileirar(evento);
+        }
+    }
+
+    int getAssinantes() {
+        return assinantes.size();
+    }
+
+    @Override
+    public void destroy() {
+        assinantes.forEach(assinante -> assinante.emitter.complete());
+        taskExecutor.shutdown();
+    }
+
+    private final class Assinante {
+        private final SseEmitter emitter;
+        private final BlockingQueue<EstoqueBaixoEvent> fila = new ArrayBlockingQueue<>(capacidade);
+        private final AtomicBoolean agendado = new AtomicBoolean();
+
+        private Assinante(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void enfileirar(EstoqueBaixoEvent evento) {
+            while (!fila.offer(evento)) {
+                if (fila.poll() != null) {
+                    eventosDescartados.increment();
+                }
+            }
+            agendar();
+        }
+
+        private void agendar() {
+            if (agendado.compareAndSet(false, true)) {
+                try {
+                    taskExecutor.execute(this::enviar);
+                } catch (TaskRejectedException e) {
+                    agendado.set(false);
+                }
+            }
+        }
+
+        private void enviar() {
+            do {
+                try {
+                    EstoqueBaixoEvent evento;
+                    while ((evento = fila.poll()) != null) {
+                        emitter.send(SseEmitter.event()
+                                .name(EVENTO)
+                                .data(evento, MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    assinantes.remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+                agendado.set(false);
+            } while (!fila.isEmpty() && agendado.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.fiap.postech.mappin.produto.controller;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+public class ExecucaoLoteResponse {
+    private static final String SEPARADOR_PARTICAO = ":";
+
+    private final Long id;
+    private final String job;
+    private final String status;
+    private final String exitCode;
+    private final String exitDescription;
+    private final LocalDateTime inicio;
+    private final LocalDateTime fim;
+    private final LocalDateTime agendadoPara;
+    private long lidos;
+    private long gravados;
+    private long ignorados;
+
+    public ExecucaoLoteResponse(JobExecution jobExecution) {
+        this.id = jobExecution.getId();
+        this.job = jobExecution.getJobInstance().getJobName();
+        this.status = jobExecution.getStatus().name();
+        this.exitCode = jobExecution.getExitStatus().getExitCode();
+        this.exitDescription = jobExecution.getExitStatus().getExitDescription();
+        this.inicio = jobExecution.getStartTime();
+        this.fim = jobExecution.getEndTime();
+        Date launchDate = jobExecution.getJobParameters().getDate("launchDate");
+        this.agendadoPara = launchDate == null ? null : LocalDateTime.ofInstant(launchDate.toInstant(), ZoneId.systemDefault());
+        boolean particionado = jobExecution.getStepExecutions().stream()
+                .anyMatch(stepExecution -> stepExecution.getStepName().contains(SEPARADOR_PARTICAO));
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            if (!particionado || stepExecution.getStepName().contains(SEPARADOR_PARTICAO)) {
+                lidos += stepExecution.getReadCount();
+                gravados += stepExecution.getWriteCount();
+                ignorados += stepExecution.getSkipCount();
+            }
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getJob() {
+        return job;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getExitCode() {
+        return exitCode;
+    }
+
+    public String getExitDescription() {
+        return exitDescription;
+    }
+
+    public LocalDateTime getInicio() {
+        return inicio;
+    }
+
+    public LocalDateTime getFim() {
+        return fim;
+    }
+
+    public LocalDateTime getAgendadoPara() {
+        return agendadoPara;
+    }
+
+    public long getLidos() {
+        return lidos;
+    }
+
+    public long getGravados() {
+        return gravados;
+    }
+
+    public long getIgnorados() {
+        return ignorados;
+    }
+}
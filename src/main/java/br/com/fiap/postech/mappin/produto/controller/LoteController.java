@@ -1,71 +1,213 @@
 package br.com.fiap.postech.mappin.produto.controller;
 
+import br.com.fiap.postech.mappin.produto.batch.AreaPreparacaoLote;
+import br.com.fiap.postech.mappin.produto.batch.CapacidadeLoteEsgotadaException;
+import br.com.fiap.postech.mappin.produto.batch.ExecucaoProgramadaConfiguration;
+import br.com.fiap.postech.mappin.produto.batch.FormatoBinarioProduto;
+import br.com.fiap.postech.mappin.produto.batch.ImportacaoDeltaListener;
+import br.com.fiap.postech.mappin.produto.batch.ImportacaoStreamProduto;
+import br.com.fiap.postech.mappin.produto.batch.LoteJobLauncher;
+import br.com.fiap.postech.mappin.produto.batch.MultiplosArquivosConfiguration;
+import br.com.fiap.postech.mappin.produto.batch.RetomadaImportacoes;
 import org.springframework.batch.core.*;
 import org.springframework.batch.core.explore.JobExplorer;
-import org.springframework.batch.core.launch.JobLauncher;
-import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
 import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
 import org.springframework.batch.core.repository.JobRestartException;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZoneOffset;
 import java.util.Date;
+import java.util.List;
+import java.util.zip.ZipException;
 
 @RestController
 @RequestMapping("/lote")
 public class LoteController {
-    private final JobLauncher jobLauncher;
+    private static final int TENTAR_NOVAMENTE_EM_SEGUNDOS = 30;
+    private static final MediaType FORMATO_BINARIO = MediaType.parseMediaType(FormatoBinarioProduto.CONTENT_TYPE);
+
+    private final LoteJobLauncher loteJobLauncher;
     private final Job job;
+    private final Job jobMultiplosArquivos;
     private final JobExplorer jobExplorer;
+    private final ImportacaoStreamProduto importacaoStreamProduto;
+    private final AreaPreparacaoLote areaPreparacaoLote;
+    private final RetomadaImportacoes retomadaImportacoes;
 
-    public LoteController(JobLauncher jobLauncher, @Qualifier("produtoExecucaoProgramadaBatchJob") Job job, JobExplorer jobExplorer) {
-        this.jobLauncher = jobLauncher;
+    public LoteController(LoteJobLauncher loteJobLauncher, @Qualifier("produtoExecucaoProgramadaBatchJob") Job job,
+                          @Qualifier("produtoMultiplosArquivosBatchJob") Job jobMultiplosArquivos, JobExplorer jobExplorer,
+                          ImportacaoStreamProduto importacaoStreamProduto, AreaPreparacaoLote areaPreparacaoLote,
+                          RetomadaImportacoes retomadaImportacoes) {
+        this.loteJobLauncher = loteJobLauncher;
         this.job = job;
+        this.jobMultiplosArquivos = jobMultiplosArquivos;
         this.jobExplorer = jobExplorer;
+        this.importacaoStreamProduto = importacaoStreamProduto;
+        this.areaPreparacaoLote = areaPreparacaoLote;
+        this.retomadaImportacoes = retomadaImportacoes;
     }
 
     @PostMapping("/execucaoManual")
-    public ExitStatus execucaoManual(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> execucaoManual(@RequestParam("file") MultipartFile file,
+                                            @RequestParam(defaultValue = "false") boolean delta) {
+        return iniciar(file, null, delta);
+    }
+
+    @PostMapping("/execucaoAgendada")
+    public ResponseEntity<?> execucaoAgendada(@RequestParam("file") MultipartFile file,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+                                              @RequestParam(defaultValue = "false") boolean delta) {
+        return iniciar(file, inicio != null ? inicio : LocalDateTime.now().plusMinutes(2), delta);
+    }
+
+    private ResponseEntity<?> iniciar(MultipartFile file, LocalDateTime inicio, boolean delta) {
+        Path tempFile = null;
         try {
-            File tempFile = Files.createTempFile("produto", ".csv").toFile();
+            boolean binario = isFormatoBinario(file);
+            tempFile = areaPreparacaoLote.novoArquivo(binario ? ".mpb" : ".csv");
             file.transferTo(tempFile);
+            if (binario && !FormatoBinarioProduto.isBinario(tempFile)) {
+                return new ResponseEntity<>("Arquivo binário inválido: cabeçalho MPB1 ausente.", HttpStatus.BAD_REQUEST);
+            }
 
-            JobParameters jobParameters = new JobParametersBuilder(this.jobExplorer)
-                    .addJobParameter("novoArquivoProdutoCsv", tempFile.getAbsolutePath(), String.class)
+            JobParametersBuilder jobParametersBuilder = new JobParametersBuilder(this.jobExplorer);
+            Instant instanteInicio = null;
+            if (inicio != null) {
+                instanteInicio = inicio.atZone(ZoneId.systemDefault()).toInstant();
+                jobParametersBuilder.addDate("launchDate", Date.from(instanteInicio));
+            }
+            JobParameters jobParameters = jobParametersBuilder
+                    .addJobParameter(ExecucaoProgramadaConfiguration.ARQUIVO, tempFile.toAbsolutePath().toString(), String.class)
+                    .addJobParameter(ImportacaoDeltaListener.DELTA, String.valueOf(delta), String.class, false)
+                    .addJobParameter(FormatoBinarioProduto.FORMATO,
+                            binario ? FormatoBinarioProduto.BINARIO : FormatoBinarioProduto.CSV, String.class, false)
                     .getNextJobParameters(job)
                     .toJobParameters();
-            return this.jobLauncher.run(job, jobParameters).getExitStatus();
-        } catch (JobExecutionAlreadyRunningException | JobRestartException | JobInstanceAlreadyCompleteException |
-                 JobParametersInvalidException | IOException e) {
+            JobExecution jobExecution = loteJobLauncher.agendar(job, jobParameters, instanteInicio);
+            tempFile = null;
+            return aceito(jobExecution);
+        } catch (CapacidadeLoteEsgotadaException exception) {
+            return capacidadeEsgotada(exception);
+        } catch (JobExecutionException | IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            removerArquivoTemporario(tempFile);
         }
     }
 
-    @PostMapping("/execucaoAgendada")
-    public ExitStatus execucaoAgendada(@RequestParam("file") MultipartFile file) {
+    @PostMapping("/execucaoMultipla")
+    public ResponseEntity<?> execucaoMultipla(@RequestParam("files") List<MultipartFile> files) {
+        Path diretorio = null;
         try {
-            File tempFile = Files.createTempFile("produto", ".csv").toFile();
-            file.transferTo(tempFile);
-
-            LocalDateTime localDateTime = LocalDateTime.now().plusMinutes(2);
-            Date date = Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
-
+            diretorio = areaPreparacaoLote.novoDiretorio();
+            for (MultipartFile file : files) {
+                try (InputStream conteudo = file.getInputStream()) {
+                    areaPreparacaoLote.adicionar(diretorio, file.getOriginalFilename(), conteudo);
+                }
+            }
+            if (AreaPreparacaoLote.arquivos(diretorio).isEmpty()) {
+                return new ResponseEntity<>("Nenhum arquivo CSV foi enviado.", HttpStatus.BAD_REQUEST);
+            }
             JobParameters jobParameters = new JobParametersBuilder(this.jobExplorer)
-                    .addDate("launchDate", date)
-                    .addJobParameter("novoArquivoProdutoCsv", tempFile.getAbsolutePath(), String.class)
-                    .getNextJobParameters(job)
+                    .addJobParameter(MultiplosArquivosConfiguration.DIRETORIO, diretorio.toAbsolutePath().toString(), String.class)
+                    .getNextJobParameters(jobMultiplosArquivos)
                     .toJobParameters();
-            return this.jobLauncher.run(job, jobParameters).getExitStatus();
-        } catch (JobExecutionAlreadyRunningException | JobRestartException | JobInstanceAlreadyCompleteException |
-                 JobParametersInvalidException | IOException e) {
+            JobExecution jobExecution = loteJobLauncher.executar(jobMultiplosArquivos, jobParameters);
+            diretorio = null;
+            return aceito(jobExecution);
+        } catch (CapacidadeLoteEsgotadaException exception) {
+            return capacidadeEsgotada(exception);
+        } catch (ZipException exception) {
+            return new ResponseEntity<>("Arquivo zip inválido: " + exception.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (JobExecutionException | IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            removerArquivoTemporario(diretorio);
+        }
+    }
+
+    @PostMapping(value = "/stream", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<?> execucaoStream(InputStream entrada) {
+        try {
+            return aceito(importacaoStreamProduto.importar(entrada));
+        } catch (CapacidadeLoteEsgotadaException exception) {
+            return capacidadeEsgotada(exception);
+        } catch (JobExecutionException | IOException e) {
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    @PostMapping("/{executionId}/reinicio")
+    public ResponseEntity<?> reiniciar(@PathVariable Long executionId) {
+        try {
+            return aceito(retomadaImportacoes.reiniciar(executionId));
+        } catch (IllegalArgumentException | JobRestartException | JobInstanceAlreadyCompleteException exception) {
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (CapacidadeLoteEsgotadaException exception) {
+            return capacidadeEsgotada(exception);
+        } catch (JobExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @GetMapping("/{executionId}")
+    public ResponseEntity<?> findById(@PathVariable Long executionId) {
+        JobExecution jobExecution = jobExplorer.getJobExecution(executionId);
+        if (jobExecution == null) {
+            return new ResponseEntity<>("Execução não encontrada com o ID: " + executionId, HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok(new ExecucaoLoteResponse(jobExecution));
+    }
+
+    private static boolean isFormatoBinario(MultipartFile file) {
+        try {
+            return file.getContentType() != null
+                    && MediaType.parseMediaType(file.getContentType()).equalsTypeAndSubtype(FORMATO_BINARIO);
+        } catch (InvalidMediaTypeException exception) {
+            return false;
+        }
+    }
+
+    private static ResponseEntity<ExecucaoLoteResponse> aceito(JobExecution jobExecution) {
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/lote/{executionId}")
+                        .buildAndExpand(jobExecution.getId())
+                        .toUri())
+                .body(new ExecucaoLoteResponse(jobExecution));
+    }
+
+    private static ResponseEntity<String> capacidadeEsgotada(CapacidadeLoteEsgotadaException exception) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(TENTAR_NOVAMENTE_EM_SEGUNDOS))
+                .body(exception.getMessage());
+    }
+
+    private static void removerArquivoTemporario(Path tempFile) {
+        if (tempFile != null) {
+            try {
+                AreaPreparacaoLote.remover(tempFile);
+            } catch (IOException e) {
+                tempFile.toFile().deleteOnExit();
+            }
         }
     }
 }
@@ -0,0 +1,27 @@
+package br.com.fiap.postech.mappin.produto.controller;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Locale;
+import java.util.Set;
+
+final class OrdenacaoProduto {
+    private static final Set<String> CAMPOS = Set.of("nome", "preco", "quantidade", "dataAtualizacao");
+
+    private OrdenacaoProduto() {
+    }
+
+    static Sort decodificar(String ordenacao) {
+        String[] partes = ordenacao.split(",", -1);
+        if (partes.length > 2 || !CAMPOS.contains(partes[0])) {
+            throw new IllegalArgumentException("Ordenação inválida: " + ordenacao + ". Use um dos campos " + CAMPOS
+                    + " seguido opcionalmente de ,asc ou ,desc.");
+        }
+        Sort.Direction direcao = Sort.Direction.ASC;
+        if (partes.length == 2) {
+            direcao = Sort.Direction.fromOptionalString(partes[1].toUpperCase(Locale.ROOT))
+                    .orElseThrow(() -> new IllegalArgumentException("Direção de ordenação inválida: " + partes[1]));
+        }
+        return Sort.by(direcao, partes[0]).and(Sort.by("id"));
+    }
+}
@@ -1,27 +1,43 @@
 package br.com.fiap.postech.mappin.produto.controller;
 
 import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.services.BuscaProduto;
+import br.com.fiap.postech.mappin.produto.services.CadastroEmLoteProduto;
+import br.com.fiap.postech.mappin.produto.services.ProdutoFiltro;
 import br.com.fiap.postech.mappin.produto.services.ProdutoService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/produto")
 public class ProdutoController {
+    private static final int LIMITE_MAXIMO_BUSCA = 100;
+
     private final ProdutoService produtoService;
+    private final BuscaProduto buscaProduto;
+    private final CadastroEmLoteProduto cadastroEmLoteProduto;
 
     @Autowired
-    public ProdutoController(ProdutoService produtoService) {
+    public ProdutoController(ProdutoService produtoService, BuscaProduto buscaProduto,
+                             CadastroEmLoteProduto cadastroEmLoteProduto) {
         this.produtoService = produtoService;
+        this.buscaProduto = buscaProduto;
+        this.cadastroEmLoteProduto = cadastroEmLoteProduto;
     }
 
     @Operation(summary = "registra um produto")
@@ -31,20 +47,76 @@ public class ProdutoController {
         return new ResponseEntity<>(savedProdutoDTO, HttpStatus.CREATED);
     }
 
-    @Operation(summary = "lista todos os produtos")
+    @Operation(summary = "registra ou altera vários produtos a partir de um array JSON ou de NDJSON, com o resultado de cada item")
+    @PostMapping(
+            value = "/lote",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public ResponseEntity<StreamingResponseBody> saveAll(InputStream entrada,
+                                                         @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) {
+        boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(saida -> cadastroEmLoteProduto.cadastrar(entrada, saida, ndjson));
+    }
+
+    @Operation(summary = "lista todos os produtos, com filtros por nome exato, parte do nome, faixa de preço, estoque baixo e data de atualização")
     @GetMapping(
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public ResponseEntity<Page<Produto>> findAll(
+    public ResponseEntity<?> findAll(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(required = false) String nome
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) String nomeContem,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Double precoMinimo,
+            @RequestParam(required = false) Double precoMaximo,
+            @RequestParam(required = false) Integer quantidadeAbaixoDe,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime atualizadoDesde,
+            @RequestParam(required = false) String ordenacao
     ) {
+        ProdutoFiltro filtro = new ProdutoFiltro(nome, nomeContem, precoMinimo, precoMaximo, quantidadeAbaixoDe, atualizadoDesde);
         Produto produto = new Produto(nome, null, null);
         produto.setId(null);
-        var pageable = PageRequest.of(page, size);
-        var produtos = produtoService.findAll(pageable, produto);
-        return new ResponseEntity<>(produtos, HttpStatus.OK);
+        try {
+            if (cursor != null) {
+                if (ordenacao != null) {
+                    throw new IllegalArgumentException("A paginação por cursor usa a ordenação por nome; remova o parâmetro ordenacao.");
+                }
+                // mesma validação de tamanho da paginação por página: PageRequest recusa size menor que 1
+                int tamanho = PageRequest.ofSize(size).getPageSize();
+                var janela = filtro.isSomenteNome()
+                        ? produtoService.findAll(CursorProduto.decodificar(cursor), tamanho, produto)
+                        : produtoService.findAll(CursorProduto.decodificar(cursor), tamanho, filtro);
+                return ResponseEntity.ok(new ProdutoCursorResponse(janela.getContent(), CursorProduto.codificar(janela)));
+            }
+            var pageable = PageRequest.of(page, size, ordenacao == null ? Sort.unsorted() : OrdenacaoProduto.decodificar(ordenacao));
+            var produtos = filtro.isSomenteNome() && ordenacao == null
+                    ? produtoService.findAll(pageable, produto)
+                    : produtoService.findAll(pageable, filtro);
+            return new ResponseEntity<>(produtos, HttpStatus.OK);
+        } catch (IllegalArgumentException exception) {
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(summary = "busca produtos pelo nome, com prefixo e tolerância a erros de digitação")
+    @GetMapping(
+            value = "/busca",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<?> buscar(
+            @RequestParam String termo,
+            @RequestParam(defaultValue = "10") int limite
+    ) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_BUSCA) {
+            return new ResponseEntity<>("O limite deve estar entre 1 e " + LIMITE_MAXIMO_BUSCA + ".", HttpStatus.BAD_REQUEST);
+        }
+        if (!buscaProduto.isPronto()) {
+            return new ResponseEntity<>("Índice de busca em construção. Tente novamente mais tarde.", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return ResponseEntity.ok(buscaProduto.buscar(termo, limite));
     }
 
     @Operation(summary = "lista um produto por seu id")
@@ -58,6 +130,19 @@ public class ProdutoController {
         }
     }
 
+    @Operation(summary = "lista vários produtos por seus ids, informando os ids não encontrados")
+    @PostMapping(
+            value = "/ids",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<?> findAllById(@RequestBody List<UUID> ids) {
+        try {
+            return ResponseEntity.ok(produtoService.findAllById(ids));
+        } catch (IllegalArgumentException exception) {
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @Operation(summary = "altera um produto por seu id")
     @PutMapping("/{id}")
     public ResponseEntity<?> update(@PathVariable UUID id, @Valid @RequestBody Produto produtoDTO) {
@@ -0,0 +1,23 @@
+package br.com.fiap.postech.mappin.produto.controller;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+
+import java.util.List;
+
+public class ProdutoCursorResponse {
+    private final List<Produto> conteudo;
+    private final String proximoCursor;
+
+    public ProdutoCursorResponse(List<Produto> conteudo, String proximoCursor) {
+        this.conteudo = conteudo;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<Produto> getConteudo() {
+        return conteudo;
+    }
+
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+}
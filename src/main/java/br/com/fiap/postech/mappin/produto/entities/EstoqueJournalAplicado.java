@@ -0,0 +1,33 @@
+package br.com.fiap.postech.mappin.produto.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "tb_estoque_journal_aplicado")
+public class EstoqueJournalAplicado {
+    @Id
+    @Column(name = "segmento", nullable = false)
+    private String segmento;
+    @Column(name = "data_aplicacao", nullable = false)
+    private LocalDateTime dataAplicacao;
+
+    public EstoqueJournalAplicado() {
+        super();
+    }
+
+    public EstoqueJournalAplicado(String segmento, LocalDateTime dataAplicacao) {
+        this();
+        this.segmento = segmento;
+        this.dataAplicacao = dataAplicacao;
+    }
+
+    public String getSegmento() {
+        return segmento;
+    }
+
+    public LocalDateTime getDataAplicacao() {
+        return dataAplicacao;
+    }
+}
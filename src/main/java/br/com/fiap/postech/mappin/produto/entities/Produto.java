@@ -1,18 +1,22 @@
 package br.com.fiap.postech.mappin.produto.entities;
 
 import br.com.fiap.postech.mappin.produto.Generated;
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.Id;
-import jakarta.persistence.Table;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tb_produto")
-public class Produto {
+@Table(name = "tb_produto", uniqueConstraints = @UniqueConstraint(name = "uk_produto_nome", columnNames = "nome"),
+        indexes = {
+                @Index(name = "ix_produto_preco", columnList = "preco"),
+                @Index(name = "ix_produto_quantidade", columnList = "quantidade"),
+                @Index(name = "ix_produto_data_atualizacao", columnList = "dataAtualizacao")
+        })
+public class Produto implements Persistable<UUID> {
     @Id
     @Column(name = "id", nullable = false)
     private UUID id;
@@ -23,6 +27,8 @@ public class Produto {
     @Column(name = "preco", nullable = false)
     private Double preco;
     private LocalDateTime dataAtualizacao;
+    @Transient
+    private boolean novo;
 
     public Produto() {
         super();
@@ -48,6 +54,31 @@ public class Produto {
         return Objects.hashCode(id);
     }
 
+    @PostLoad
+    @PostPersist
+    public void marcarComoPersistido() {
+        this.novo = false;
+    }
+
+    // toda gravação pela entidade atualiza a data, usada pelo filtro atualizadoDesde; as alterações de estoque
+    // em massa (JPQL e JDBC) atualizam a coluna no próprio comando
+    @PrePersist
+    @PreUpdate
+    public void registrarAtualizacao() {
+        this.dataAtualizacao = LocalDateTime.now();
+    }
+
+    public void marcarComoNovo() {
+        this.novo = true;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return novo;
+    }
+
+    @Override
     public UUID getId() {
         return id;
     }
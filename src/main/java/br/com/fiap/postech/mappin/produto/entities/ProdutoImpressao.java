@@ -0,0 +1,63 @@
+package br.com.fiap.postech.mappin.produto.entities;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+@Entity
+@Table(name = "tb_produto_impressao", indexes = @Index(name = "ix_produto_impressao_execucao", columnList = "execucao"))
+public class ProdutoImpressao implements Persistable<String> {
+    @Id
+    @Column(name = "nome", nullable = false)
+    private String nome;
+    @Column(name = "hash", nullable = false)
+    private long hash;
+    @Column(name = "execucao", nullable = false)
+    private long execucao;
+    @Transient
+    private boolean novo;
+
+    public ProdutoImpressao() {
+        super();
+    }
+
+    public ProdutoImpressao(String nome, long hash, long execucao) {
+        this();
+        this.nome = nome;
+        this.hash = hash;
+        this.execucao = execucao;
+        this.novo = true;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarComoPersistido() {
+        this.novo = false;
+    }
+
+    @Override
+    public String getId() {
+        return nome;
+    }
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    public long getExecucao() {
+        return execucao;
+    }
+
+    public void atualizar(long hash, long execucao) {
+        this.hash = hash;
+        this.execucao = execucao;
+    }
+}
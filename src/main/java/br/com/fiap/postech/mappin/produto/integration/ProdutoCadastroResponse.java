@@ -0,0 +1,49 @@
+package br.com.fiap.postech.mappin.produto.integration;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProdutoCadastroResponse {
+    public enum Situacao {
+        CRIADO,
+        ATUALIZADO,
+        SUBSTITUIDO,
+        REJEITADO
+    }
+
+    private final long indice;
+    private final UUID id;
+    private final String nome;
+    private final Situacao situacao;
+    private final String mensagem;
+
+    public ProdutoCadastroResponse(long indice, UUID id, String nome, Situacao situacao, String mensagem) {
+        this.indice = indice;
+        this.id = id;
+        this.nome = nome;
+        this.situacao = situacao;
+        this.mensagem = mensagem;
+    }
+
+    public long getIndice() {
+        return indice;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public Situacao getSituacao() {
+        return situacao;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+}
@@ -1,12 +1,17 @@
 package br.com.fiap.postech.mappin.produto.integration;
 
 import br.com.fiap.postech.mappin.produto.services.ProdutoService;
+import br.com.fiap.postech.mappin.produto.services.ReservaEstoqueException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Component
 public class ProdutoConsumer {
@@ -20,6 +25,26 @@ public class ProdutoConsumer {
     @Bean(name = "consumer-remover-do-estoque")
     @PostMapping
     Consumer<ProdutoRequest> consumerRemoverDoEstoque() {
-        return produtoService::removerDoEstoque;
+        return produtoRequest -> {
+            try {
+                produtoService.removerDoEstoque(produtoRequest);
+            } catch (IllegalArgumentException exception) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, exception.getMessage(), exception);
+            }
+        };
+    }
+
+    @Bean(name = "function-remover-do-estoque-em-lote")
+    @PostMapping
+    Function<List<ProdutoRequest>, List<ProdutoEstoqueResponse>> functionRemoverDoEstoqueEmLote() {
+        return produtoRequests -> {
+            try {
+                return produtoService.removerDoEstoqueEmLote(produtoRequests);
+            } catch (ReservaEstoqueException exception) {
+                return exception.getResultados();
+            } catch (IllegalArgumentException exception) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, exception.getMessage(), exception);
+            }
+        };
     }
 }
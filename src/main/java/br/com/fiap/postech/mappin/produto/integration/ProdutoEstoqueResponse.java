@@ -0,0 +1,34 @@
+package br.com.fiap.postech.mappin.produto.integration;
+
+import java.util.UUID;
+
+public class ProdutoEstoqueResponse {
+    public enum Situacao {
+        RESERVADO,
+        SEM_ESTOQUE,
+        NAO_ENCONTRADO,
+        CANCELADO
+    }
+
+    private final UUID id;
+    private final Integer quantidade;
+    private final Situacao situacao;
+
+    public ProdutoEstoqueResponse(UUID id, Integer quantidade, Situacao situacao) {
+        this.id = id;
+        this.quantidade = quantidade;
+        this.situacao = situacao;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+
+    public Situacao getSituacao() {
+        return situacao;
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.fiap.postech.mappin.produto.integration;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class ProdutosPorIdResponse {
+    private final List<Produto> produtos;
+    private final List<UUID> naoEncontrados;
+
+    public ProdutosPorIdResponse(List<Produto> produtos, List<UUID> naoEncontrados) {
+        this.produtos = produtos;
+        this.naoEncontrados = naoEncontrados;
+    }
+
+    public List<Produto> getProdutos() {
+        return produtos;
+    }
+
+    public List<UUID> getNaoEncontrados() {
+        return naoEncontrados;
+    }
+}
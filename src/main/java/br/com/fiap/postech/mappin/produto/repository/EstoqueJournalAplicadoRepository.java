@@ -0,0 +1,7 @@
+package br.com.fiap.postech.mappin.produto.repository;
+
+import br.com.fiap.postech.mappin.produto.entities.EstoqueJournalAplicado;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EstoqueJournalAplicadoRepository extends JpaRepository<EstoqueJournalAplicado, String> {
+}
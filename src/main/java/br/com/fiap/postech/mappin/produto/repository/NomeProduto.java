@@ -0,0 +1,9 @@
+package br.com.fiap.postech.mappin.produto.repository;
+
+import java.util.UUID;
+
+public interface NomeProduto {
+    UUID getId();
+
+    String getNome();
+}
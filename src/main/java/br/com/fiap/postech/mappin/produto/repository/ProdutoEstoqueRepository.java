@@ -0,0 +1,8 @@
+package br.com.fiap.postech.mappin.produto.repository;
+
+import java.util.SortedMap;
+import java.util.UUID;
+
+public interface ProdutoEstoqueRepository {
+    int[] removerDoEstoque(SortedMap<UUID, Integer> quantidadesPorId);
+}
@@ -0,0 +1,50 @@
+package br.com.fiap.postech.mappin.produto.repository;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.UUID;
+
+public class ProdutoEstoqueRepositoryImpl implements ProdutoEstoqueRepository {
+    private static final String REMOVER_DO_ESTOQUE =
+            "update tb_produto set quantidade = quantidade - ?, data_atualizacao = localtimestamp where id = ? and quantidade - ? >= 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public ProdutoEstoqueRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int[] removerDoEstoque(SortedMap<UUID, Integer> quantidadesPorId) {
+        List<Map.Entry<UUID, Integer>> itens = new ArrayList<>(quantidadesPorId.entrySet());
+        // mesmo contrato do removerDoEstoque via JPQL (flushAutomatically/clearAutomatically): o batch JDBC
+        // não passa pelo contexto de persistência, então as entidades gerenciadas ficariam com a quantidade antiga
+        entityManager.flush();
+        int[] atualizados = jdbcTemplate.batchUpdate(REMOVER_DO_ESTOQUE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<UUID, Integer> item = itens.get(i);
+                ps.setInt(1, item.getValue());
+                ps.setObject(2, item.getKey());
+                ps.setInt(3, item.getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return itens.size();
+            }
+        });
+        entityManager.clear();
+        return atualizados;
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.fiap.postech.mappin.produto.repository;
+
+import br.com.fiap.postech.mappin.produto.entities.ProdutoImpressao;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProdutoImpressaoRepository extends JpaRepository<ProdutoImpressao, String> {
+    @Modifying(flushAutomatically = true)
+    @Query("update ProdutoImpressao i set i.execucao = :execucao where i.nome in :nomes")
+    int marcarComoVistos(@Param("nomes") Collection<String> nomes, @Param("execucao") long execucao);
+
+    long countByExecucaoNot(long execucao);
+
+    @Query("select i.nome from ProdutoImpressao i where i.execucao <> :execucao order by i.nome")
+    List<String> findNomesAusentes(@Param("execucao") long execucao, Pageable pageable);
+
+    @Modifying
+    @Query("delete from ProdutoImpressao i where i.execucao <> :execucao")
+    int removerAusentes(@Param("execucao") long execucao);
+}
@@ -1,13 +1,33 @@
 package br.com.fiap.postech.mappin.produto.repository;
 
 import br.com.fiap.postech.mappin.produto.entities.Produto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProdutoRepository extends JpaRepository<Produto, UUID> {
+public interface ProdutoRepository extends JpaRepository<Produto, UUID>, JpaSpecificationExecutor<Produto>, ProdutoEstoqueRepository {
     Optional<Produto> findByNome(String nome);
+
+    List<Produto> findByNomeIn(Collection<String> nomes);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select p.id as id, p.nome as nome from Produto p")
+    Stream<NomeProduto> streamNomes();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Produto p set p.quantidade = p.quantidade - :quantidade, p.dataAtualizacao = local datetime where p.id = :id and p.quantidade - :quantidade >= 1")
+    int removerDoEstoque(@Param("id") UUID id, @Param("quantidade") int quantidade);
 }
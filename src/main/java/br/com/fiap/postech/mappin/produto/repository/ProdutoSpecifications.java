@@ -0,0 +1,70 @@
+package br.com.fiap.postech.mappin.produto.repository;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.services.ProdutoFiltro;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+public final class ProdutoSpecifications {
+    private static final char ESCAPE = '\\';
+
+    private ProdutoSpecifications() {
+    }
+
+    public static Specification<Produto> filtro(ProdutoFiltro filtro) {
+        return Specification.where(nomeIgual(filtro.getNome()))
+                .and(nomeContem(filtro.getNomeContem()))
+                .and(precoEntre(filtro.getPrecoMinimo(), filtro.getPrecoMaximo()))
+                .and(quantidadeAbaixoDe(filtro.getQuantidadeAbaixoDe()))
+                .and(atualizadoDesde(filtro.getAtualizadoDesde()));
+    }
+
+    // mesmo critério da consulta por exemplo: nome exato, atendido pelo índice único
+    public static Specification<Produto> nomeIgual(String nome) {
+        if (nome == null || nome.isEmpty()) {
+            return null;
+        }
+        return (root, query, builder) -> builder.equal(root.get("nome"), nome);
+    }
+
+    // parte do nome sem diferenciar maiúsculas: lower(nome) like, atendido pelo índice trigram
+    public static Specification<Produto> nomeContem(String nome) {
+        if (nome == null || nome.isEmpty()) {
+            return null;
+        }
+        String padrao = "%" + nome.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, builder) -> builder.like(builder.lower(root.get("nome")), padrao, ESCAPE);
+    }
+
+    public static Specification<Produto> precoEntre(Double minimo, Double maximo) {
+        if (minimo == null && maximo == null) {
+            return null;
+        }
+        if (maximo == null) {
+            return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("preco"), minimo);
+        }
+        if (minimo == null) {
+            return (root, query, builder) -> builder.lessThanOrEqualTo(root.get("preco"), maximo);
+        }
+        return (root, query, builder) -> builder.between(root.get("preco"), minimo, maximo);
+    }
+
+    public static Specification<Produto> quantidadeAbaixoDe(Integer limite) {
+        if (limite == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.lessThan(root.get("quantidade"), limite);
+    }
+
+    public static Specification<Produto> atualizadoDesde(LocalDateTime dataAtualizacao) {
+        if (dataAtualizacao == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("dataAtualizacao"), dataAtualizacao);
+    }
+}
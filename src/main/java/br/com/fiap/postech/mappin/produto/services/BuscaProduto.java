@@ -0,0 +1,103 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import br.com.fiap.postech.mappin.produto.repository.NomeProduto;
+import br.com.fiap.postech.mappin.produto.repository.ProdutoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Component
+public class BuscaProduto {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BuscaProduto.class);
+
+    private final IndiceBuscaProduto indice = new IndiceBuscaProduto();
+    private final ProdutoRepository produtoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<UUID> removidosDuranteConstrucao = new HashSet<>();
+    private volatile boolean pronto;
+
+    @Autowired
+    public BuscaProduto(ProdutoRepository produtoRepository, PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry) {
+        this.produtoRepository = produtoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        Gauge.builder("produto.busca.indice.produtos", indice, IndiceBuscaProduto::getProdutos)
+                .register(meterRegistry);
+        Gauge.builder("produto.busca.indice.termos", indice, IndiceBuscaProduto::getTermos)
+                .register(meterRegistry);
+        Gauge.builder("produto.busca.indice.memoria", indice, IndiceBuscaProduto::getBytesEstimados)
+                .description("Estimativa do heap ocupado pelo índice de busca")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarConstrucao() {
+        Thread construcao = new Thread(this::construir, "indice-busca-produto");
+        construcao.setDaemon(true);
+        construcao.start();
+    }
+
+    void construir() {
+        long inicio = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<NomeProduto> nomes = produtoRepository.streamNomes()) {
+                    nomes.forEach(nome -> {
+                        synchronized (removidosDuranteConstrucao) {
+                            if (!removidosDuranteConstrucao.contains(nome.getId())) {
+                                indice.indexarSeAusente(nome.getId(), nome.getNome());
+                            }
+                        }
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            LOGGER.error("Falha ao construir o índice de busca de produtos; a busca seguirá indisponível.", e);
+            return;
+        }
+        synchronized (removidosDuranteConstrucao) {
+            pronto = true;
+            removidosDuranteConstrucao.clear();
+        }
+        LOGGER.info("Índice de busca construído em {}: {} produtos, {} termos, ~{} MB.",
+                Duration.ofNanos(System.nanoTime() - inicio), indice.getProdutos(), indice.getTermos(),
+                indice.getBytesEstimados() / (1024 * 1024));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void atualizar(ProdutosAlteradosEvent evento) {
+        synchronized (removidosDuranteConstrucao) {
+            if (!pronto) {
+                removidosDuranteConstrucao.addAll(evento.getRemovidos());
+            }
+            indice.indexar(evento.getSalvos());
+            evento.getRemovidos().forEach(indice::remover);
+        }
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    public List<ResultadoBusca> buscar(String consulta, int limite) {
+        return indice.buscar(consulta, limite);
+    }
+}
@@ -0,0 +1,187 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.integration.ProdutoCadastroResponse;
+import br.com.fiap.postech.mappin.produto.integration.ProdutoCadastroResponse.Situacao;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.common.util.StringUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Component
+public class CadastroEmLoteProduto {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CadastroEmLoteProduto.class);
+    private static final String ITENS = "produto.cadastro.lote.itens";
+
+    private final ProdutoService produtoService;
+    private final ObjectMapper objectMapper;
+    private final int tamanhoLote;
+    private final ProdutoValidacao produtoValidacao;
+    private final Counter itensGravados;
+    private final Counter itensRejeitados;
+
+    @Autowired
+    public CadastroEmLoteProduto(ProdutoService produtoService, ObjectMapper objectMapper,
+                                 @Value("${mappin.produto.cadastro-lote.tamanho:500}") int tamanhoLote,
+                                 ProdutoValidacao produtoValidacao, MeterRegistry meterRegistry) {
+        this.produtoService = produtoService;
+        this.objectMapper = objectMapper;
+        this.tamanhoLote = tamanhoLote;
+        this.produtoValidacao = produtoValidacao;
+        this.itensGravados = meterRegistry.counter(ITENS, "situacao", "gravado");
+        this.itensRejeitados = meterRegistry.counter(ITENS, "situacao", "rejeitado");
+    }
+
+    // lê um array JSON ou NDJSON item a item e responde no mesmo formato, um resultado por item e na ordem recebida
+    public void cadastrar(InputStream entrada, OutputStream saida, boolean ndjson) throws IOException {
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (!ndjson) {
+                gerador.writeStartArray();
+            }
+            List<Produto> lote = new ArrayList<>(tamanhoLote);
+            long indice = 0;
+            MappingIterator<Produto> produtos = null;
+            String erroLeitura = null;
+            try {
+                produtos = objectMapper.readerFor(Produto.class).readValues(entrada);
+                while (produtos.hasNextValue()) {
+                    lote.add(produtos.nextValue());
+                    if (lote.size() == tamanhoLote) {
+                        List<ProdutoCadastroResponse> resultados = gravar(lote, indice);
+                        indice += lote.size();
+                        lote.clear();
+                        escrever(gerador, resultados, ndjson);
+                    }
+                }
+            } catch (JsonParseException | JsonMappingException exception) {
+                erroLeitura = exception.getOriginalMessage();
+            } finally {
+                if (produtos != null) {
+                    produtos.close();
+                }
+            }
+            escrever(gerador, gravar(lote, indice), ndjson);
+            if (erroLeitura != null) {
+                itensRejeitados.increment();
+                escrever(gerador, List.of(new ProdutoCadastroResponse(indice + lote.size(), null, null, Situacao.REJEITADO,
+                        "JSON inválido; os itens seguintes não foram lidos: " + erroLeitura)), ndjson);
+            }
+            if (!ndjson) {
+                gerador.writeEndArray();
+            }
+        }
+    }
+
+    List<ProdutoCadastroResponse> gravar(List<Produto> lote, long indiceInicial) {
+        ProdutoCadastroResponse[] resultados = new ProdutoCadastroResponse[lote.size()];
+        Map<String, Integer> ultimoPorNome = new HashMap<>();
+        for (int i = 0; i < lote.size(); i++) {
+            Produto produto = lote.get(i);
+            String erro = validar(produto);
+            if (erro != null) {
+                resultados[i] = new ProdutoCadastroResponse(indiceInicial + i, null,
+                        produto == null ? null : produto.getNome(), Situacao.REJEITADO, erro);
+            } else {
+                ultimoPorNome.put(produto.getNome(), i);
+            }
+        }
+        List<Produto> validos = new ArrayList<>(ultimoPorNome.size());
+        LocalDateTime agora = LocalDateTime.now();
+        for (int i = 0; i < lote.size(); i++) {
+            if (resultados[i] == null && ultimoPorNome.get(lote.get(i).getNome()) == i) {
+                // como no ProdutoProcessor: a data de atualização é do servidor, não a enviada pelo cliente
+                lote.get(i).setDataAtualizacao(agora);
+                validos.add(lote.get(i));
+            }
+        }
+        Map<String, Produto> salvosPorNome = new HashMap<>();
+        String falha = null;
+        try {
+            salvarTodos(validos).forEach(p -> salvosPorNome.put(p.getNome(), p));
+        } catch (RuntimeException exception) {
+            LOGGER.error("Falha ao gravar lote de {} produtos.", validos.size(), exception);
+            falha = "Falha ao gravar o lote deste item.";
+        }
+        for (int i = 0; i < lote.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            Produto produto = lote.get(i);
+            Produto salvo = salvosPorNome.get(produto.getNome());
+            if (falha != null || salvo == null) {
+                resultados[i] = new ProdutoCadastroResponse(indiceInicial + i, null, produto.getNome(), Situacao.REJEITADO, falha);
+            } else if (ultimoPorNome.get(produto.getNome()) != i) {
+                resultados[i] = new ProdutoCadastroResponse(indiceInicial + i, salvo.getId(), produto.getNome(), Situacao.SUBSTITUIDO,
+                        "Substituído pelo item " + (indiceInicial + ultimoPorNome.get(produto.getNome())) + ", com o mesmo nome.");
+            } else {
+                // saveAll grava o próprio item quando o nome é novo e o produto já existente quando é uma alteração
+                Situacao situacao = salvo == produto ? Situacao.CRIADO : Situacao.ATUALIZADO;
+                resultados[i] = new ProdutoCadastroResponse(indiceInicial + i, salvo.getId(), produto.getNome(), situacao, null);
+            }
+        }
+        for (ProdutoCadastroResponse resultado : resultados) {
+            (resultado.getSituacao() == Situacao.REJEITADO ? itensRejeitados : itensGravados).increment();
+        }
+        return Arrays.asList(resultados);
+    }
+
+    private List<Produto> salvarTodos(List<Produto> produtos) {
+        if (produtos.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return produtoService.saveAll(produtos);
+        } catch (DataIntegrityViolationException exception) {
+            if (!ProdutoValidacao.violaNomeUnico(exception)) {
+                throw exception;
+            }
+            // outro cadastro inseriu um dos nomes depois da consulta; na nova tentativa ele é encontrado e alterado
+            return produtoService.saveAll(produtos);
+        }
+    }
+
+    private String validar(Produto produto) {
+        if (produto == null) {
+            return "O item deve ser um produto.";
+        }
+        if (StringUtils.isBlank(produto.getNome())) {
+            return "O nome do produto é obrigatório.";
+        }
+        if (produto.getQuantidade() == null || produto.getPreco() == null) {
+            return "A quantidade e o preço do produto são obrigatórios.";
+        }
+        try {
+            produtoValidacao.valida(produto);
+        } catch (IllegalArgumentException exception) {
+            return exception.getMessage();
+        }
+        return null;
+    }
+
+    private static void escrever(JsonGenerator gerador, List<ProdutoCadastroResponse> resultados, boolean ndjson) throws IOException {
+        for (ProdutoCadastroResponse resultado : resultados) {
+            gerador.writeObject(resultado);
+            if (ndjson) {
+                gerador.writeRaw('\n');
+            }
+        }
+        gerador.flush();
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class EstoqueBaixoEvent {
+    private final UUID id;
+    private final String nome;
+    private final int quantidade;
+    private final int limite;
+    private final LocalDateTime dataDeteccao;
+
+    public EstoqueBaixoEvent(UUID id, String nome, int quantidade, int limite, LocalDateTime dataDeteccao) {
+        this.id = id;
+        this.nome = nome;
+        this.quantidade = quantidade;
+        this.limite = limite;
+        this.dataDeteccao = dataDeteccao;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public LocalDateTime getDataDeteccao() {
+        return dataDeteccao;
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+/**
+ * Recebe os produtos cujo estoque cruzou o limite configurado em mappin.estoque.baixo.limite.
+ * É chamado pela thread do monitor, fora da transação da remoção; implementações não devem bloquear.
+ */
+public interface EstoqueBaixoListener {
+    void estoqueBaixo(EstoqueBaixoEvent evento);
+}
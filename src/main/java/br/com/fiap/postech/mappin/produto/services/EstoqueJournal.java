@@ -0,0 +1,154 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Stream;
+
+class EstoqueJournal implements Closeable {
+    private static final String PREFIXO = "estoque-";
+    private static final String SUFIXO = ".journal";
+    private static final String REJEITADOS = "rejeitados";
+
+    private final Path diretorio;
+    private final boolean sincronizar;
+    private final List<Path> segmentosFechados = new ArrayList<>();
+    private final Object sincronizacao = new Object();
+    private Path segmentoAtual;
+    private FileChannel canal;
+    private long registrados;
+    private long sincronizados;
+
+    EstoqueJournal(Path diretorio, boolean sincronizar) throws IOException {
+        this.diretorio = Files.createDirectories(diretorio);
+        this.sincronizar = sincronizar;
+    }
+
+    List<Path> segmentosExistentes() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(EstoqueJournal::isSegmento).sorted().toList();
+        }
+    }
+
+    synchronized void abrir() throws IOException {
+        segmentoAtual = diretorio.resolve(PREFIXO + System.currentTimeMillis() + "-" + UUID.randomUUID() + SUFIXO);
+        canal = FileChannel.open(segmentoAtual, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // o fsync é feito fora do monitor de escrita e em grupo: enquanto uma thread sincroniza, as seguintes só
+    // acrescentam seus registros e a próxima sincronização cobre todos eles de uma vez
+    void registrar(SortedMap<UUID, Integer> quantidadesPorId) throws IOException {
+        StringBuilder registro = new StringBuilder();
+        quantidadesPorId.forEach((id, quantidade) -> {
+            if (!registro.isEmpty()) {
+                registro.append(',');
+            }
+            registro.append(id).append(':').append(quantidade);
+        });
+        ByteBuffer buffer = ByteBuffer.wrap(registro.append('\n').toString().getBytes(StandardCharsets.US_ASCII));
+        long numero;
+        synchronized (this) {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            numero = ++registrados;
+        }
+        if (sincronizar) {
+            sincronizarAte(numero);
+        }
+    }
+
+    // chamado sob a trava de leitura do EstoqueWriteBehind, então o canal não é rotacionado nem fechado durante o force
+    private void sincronizarAte(long numero) throws IOException {
+        synchronized (sincronizacao) {
+            if (sincronizados >= numero) {
+                return;
+            }
+            long ultimo;
+            FileChannel atual;
+            synchronized (this) {
+                ultimo = registrados;
+                atual = canal;
+            }
+            atual.force(false);
+            sincronizados = ultimo;
+        }
+    }
+
+    synchronized List<Path> rotacionar() throws IOException {
+        canal.force(false);
+        canal.close();
+        segmentosFechados.add(segmentoAtual);
+        abrir();
+        return List.copyOf(segmentosFechados);
+    }
+
+    synchronized void descartar(Collection<Path> segmentos) throws IOException {
+        for (Path segmento : segmentos) {
+            Files.deleteIfExists(segmento);
+            segmentosFechados.remove(segmento);
+        }
+    }
+
+    synchronized Path arquivarRejeitados(Collection<Path> segmentos, Map<UUID, Integer> rejeitados) throws IOException {
+        Path destino = Files.createDirectories(diretorio.resolve(REJEITADOS)
+                .resolve(PREFIXO + System.currentTimeMillis() + "-" + UUID.randomUUID()));
+        StringBuilder conteudo = new StringBuilder();
+        rejeitados.forEach((id, quantidade) -> conteudo.append(id).append(':').append(quantidade).append('\n'));
+        Files.writeString(destino.resolve(REJEITADOS + ".txt"), conteudo, StandardCharsets.US_ASCII);
+        for (Path segmento : segmentos) {
+            if (Files.exists(segmento)) {
+                Files.move(segmento, destino.resolve(segmento.getFileName()));
+            }
+            segmentosFechados.remove(segmento);
+        }
+        return destino;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (canal == null) {
+            return;
+        }
+        canal.close();
+        if (Files.size(segmentoAtual) == 0) {
+            Files.delete(segmentoAtual);
+        }
+        canal = null;
+    }
+
+    static Map<UUID, Integer> ler(Path segmento) throws IOException {
+        Map<UUID, Integer> quantidadesPorId = new HashMap<>();
+        String conteudo = Files.readString(segmento, StandardCharsets.US_ASCII);
+        int fimUltimoRegistro = conteudo.lastIndexOf('\n');
+        if (fimUltimoRegistro < 0) {
+            return quantidadesPorId;
+        }
+        for (String registro : conteudo.substring(0, fimUltimoRegistro).split("\n")) {
+            if (registro.isBlank()) {
+                continue;
+            }
+            for (String item : registro.split(",")) {
+                int separador = item.indexOf(':');
+                quantidadesPorId.merge(UUID.fromString(item.substring(0, separador)),
+                        Integer.parseInt(item.substring(separador + 1)), Integer::sum);
+            }
+        }
+        return quantidadesPorId;
+    }
+
+    static String nome(Path segmento) {
+        return segmento.getFileName().toString();
+    }
+
+    private static boolean isSegmento(Path arquivo) {
+        String nome = nome(arquivo);
+        return nome.startsWith(PREFIXO) && nome.endsWith(SUFIXO);
+    }
+}
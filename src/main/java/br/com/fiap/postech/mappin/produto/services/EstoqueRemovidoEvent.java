@@ -0,0 +1,17 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public class EstoqueRemovidoEvent {
+    private final List<UUID> ids;
+
+    public EstoqueRemovidoEvent(Collection<UUID> ids) {
+        this.ids = List.copyOf(ids);
+    }
+
+    public List<UUID> getIds() {
+        return ids;
+    }
+}
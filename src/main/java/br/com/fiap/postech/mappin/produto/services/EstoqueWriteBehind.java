@@ -0,0 +1,297 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import br.com.fiap.postech.mappin.produto.config.CacheConfiguration;
+import br.com.fiap.postech.mappin.produto.entities.EstoqueJournalAplicado;
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.repository.EstoqueJournalAplicadoRepository;
+import br.com.fiap.postech.mappin.produto.repository.ProdutoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@ConditionalOnProperty(name = "mappin.estoque.write-behind.habilitado", havingValue = "true")
+public class EstoqueWriteBehind implements InitializingBean, DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EstoqueWriteBehind.class);
+
+    private final ProdutoRepository produtoRepository;
+    private final EstoqueJournalAplicadoRepository estoqueJournalAplicadoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EstoqueJournal journal;
+    private final Duration intervalo;
+    private final int limite;
+    private final ThreadPoolTaskScheduler taskScheduler;
+    private final Map<UUID, Saldo> saldos = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicInteger operacoesPendentes = new AtomicInteger();
+    private final AtomicBoolean descarregamentoAgendado = new AtomicBoolean();
+
+    @Autowired
+    public EstoqueWriteBehind(ProdutoRepository produtoRepository,
+                              EstoqueJournalAplicadoRepository estoqueJournalAplicadoRepository,
+                              PlatformTransactionManager transactionManager,
+                              CacheManager cacheManager,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${mappin.estoque.write-behind.diretorio:${java.io.tmpdir}/mappin-estoque}") Path diretorio,
+                              @Value("${mappin.estoque.write-behind.sincronizar:true}") boolean sincronizar,
+                              @Value("${mappin.estoque.write-behind.intervalo:PT0.2S}") Duration intervalo,
+                              @Value("${mappin.estoque.write-behind.limite:1000}") int limite) throws IOException {
+        this.produtoRepository = produtoRepository;
+        this.estoqueJournalAplicadoRepository = estoqueJournalAplicadoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.journal = new EstoqueJournal(diretorio, sincronizar);
+        this.intervalo = intervalo;
+        this.limite = limite;
+        this.taskScheduler = new ThreadPoolTaskScheduler();
+        this.taskScheduler.setThreadNamePrefix("estoque-write-behind-");
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        reaplicarJournal();
+        journal.abrir();
+        taskScheduler.initialize();
+        taskScheduler.scheduleWithFixedDelay(this::descarregarComSeguranca, Instant.now().plus(intervalo), intervalo);
+    }
+
+    public Set<UUID> reservar(SortedMap<UUID, Integer> quantidadesPorId) {
+        lock.readLock().lock();
+        try {
+            carregarSaldos(quantidadesPorId.keySet());
+            Set<UUID> rejeitados = new HashSet<>();
+            Map<Saldo, Integer> reservados = new LinkedHashMap<>();
+            quantidadesPorId.forEach((id, quantidade) -> {
+                Saldo saldo = saldos.get(id);
+                if (saldo != null && saldo.reservar(quantidade)) {
+                    reservados.put(saldo, quantidade);
+                } else {
+                    rejeitados.add(id);
+                }
+            });
+            if (!rejeitados.isEmpty()) {
+                reservados.forEach(Saldo::liberar);
+                return rejeitados;
+            }
+            try {
+                journal.registrar(quantidadesPorId);
+            } catch (IOException e) {
+                reservados.forEach(Saldo::liberar);
+                throw new UncheckedIOException(e);
+            }
+            reservados.forEach((saldo, quantidade) -> saldo.pendente.addAndGet(quantidade));
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (operacoesPendentes.incrementAndGet() >= limite && descarregamentoAgendado.compareAndSet(false, true)) {
+            taskScheduler.execute(this::descarregarComSeguranca);
+        }
+        return Set.of();
+    }
+
+    public void descarregar() {
+        lock.writeLock().lock();
+        try {
+            descarregamentoAgendado.set(false);
+            SortedMap<UUID, Integer> quantidadesPorId = new TreeMap<>();
+            saldos.forEach((id, saldo) -> {
+                if (saldo.pendente.get() > 0) {
+                    quantidadesPorId.put(id, saldo.pendente.get());
+                }
+            });
+            if (quantidadesPorId.isEmpty()) {
+                return;
+            }
+            List<Path> segmentos = journal.rotacionar();
+            Map<UUID, Integer> rejeitados = aplicar(quantidadesPorId, segmentos);
+            saldos.clear();
+            operacoesPendentes.set(0);
+            Cache cache = cacheManager.getCache(CacheConfiguration.PRODUTOS);
+            if (cache != null) {
+                quantidadesPorId.keySet().forEach(cache::evict);
+            }
+            finalizar(segmentos, rejeitados);
+            eventPublisher.publishEvent(new EstoqueRemovidoEvent(quantidadesPorId.keySet()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // alterações de cadastro (PUT, importação, remoção) mudam a quantidade no banco; o saldo em memória
+    // é recalculado a partir dela, descontando o que ainda está pendente de descarga
+    @TransactionalEventListener(fallbackExecution = true)
+    public void produtosAlterados(ProdutosAlteradosEvent evento) {
+        lock.writeLock().lock();
+        try {
+            for (Produto produto : evento.getSalvos()) {
+                Saldo saldo = saldos.get(produto.getId());
+                if (saldo == null) {
+                    continue;
+                }
+                if (saldo.pendente.get() == 0) {
+                    saldos.remove(produto.getId());
+                } else {
+                    saldo.disponivel.set(produto.getQuantidade() - 1 - saldo.pendente.get());
+                }
+            }
+            for (UUID id : evento.getRemovidos()) {
+                Saldo saldo = saldos.get(id);
+                if (saldo != null && saldo.pendente.get() == 0) {
+                    saldos.remove(id);
+                } else if (saldo != null) {
+                    saldo.disponivel.set(0);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        taskScheduler.shutdown();
+        try {
+            descarregar();
+        } finally {
+            journal.close();
+        }
+    }
+
+    private void descarregarComSeguranca() {
+        try {
+            descarregar();
+        } catch (RuntimeException e) {
+            LOGGER.error("Falha ao descarregar o estoque pendente; nova tentativa no próximo ciclo.", e);
+        }
+    }
+
+    private void carregarSaldos(Set<UUID> ids) {
+        List<UUID> ausentes = ids.stream().filter(id -> !saldos.containsKey(id)).toList();
+        if (ausentes.isEmpty()) {
+            return;
+        }
+        for (Produto produto : produtoRepository.findAllById(ausentes)) {
+            saldos.putIfAbsent(produto.getId(), new Saldo(produto.getQuantidade() - 1));
+        }
+    }
+
+    private void reaplicarJournal() throws IOException {
+        List<Path> segmentos = journal.segmentosExistentes();
+        if (segmentos.isEmpty()) {
+            return;
+        }
+        SortedMap<UUID, Integer> quantidadesPorId = new TreeMap<>();
+        List<Path> pendentes = new ArrayList<>();
+        for (Path segmento : segmentos) {
+            if (!estoqueJournalAplicadoRepository.existsById(EstoqueJournal.nome(segmento))) {
+                EstoqueJournal.ler(segmento).forEach((id, quantidade) -> quantidadesPorId.merge(id, quantidade, Integer::sum));
+                pendentes.add(segmento);
+            }
+        }
+        Map<UUID, Integer> rejeitados = pendentes.isEmpty() ? Map.of() : aplicar(quantidadesPorId, pendentes);
+        List<Path> aplicados = new ArrayList<>(segmentos);
+        aplicados.removeAll(pendentes);
+        journal.descartar(aplicados);
+        removerAplicados(aplicados);
+        finalizar(pendentes, rejeitados);
+    }
+
+    private Map<UUID, Integer> aplicar(SortedMap<UUID, Integer> quantidadesPorId, List<Path> segmentos) {
+        return transactionTemplate.execute(status -> {
+            int[] atualizados = quantidadesPorId.isEmpty() ? new int[0] : produtoRepository.removerDoEstoque(quantidadesPorId);
+            Map<UUID, Integer> rejeitados = new TreeMap<>();
+            int indice = 0;
+            for (Map.Entry<UUID, Integer> item : quantidadesPorId.entrySet()) {
+                if (atualizados[indice++] == 0) {
+                    rejeitados.put(item.getKey(), item.getValue());
+                }
+            }
+            LocalDateTime agora = LocalDateTime.now();
+            estoqueJournalAplicadoRepository.saveAll(segmentos.stream()
+                    .map(segmento -> new EstoqueJournalAplicado(EstoqueJournal.nome(segmento), agora))
+                    .toList());
+            return rejeitados;
+        });
+    }
+
+    // remoções já confirmadas ao cliente e recusadas pelo banco não podem sumir com o journal:
+    // os segmentos vão para a pasta de rejeitados, com a lista do que não foi aplicado, para conciliação manual
+    private void finalizar(List<Path> segmentos, Map<UUID, Integer> rejeitados) throws IOException {
+        if (rejeitados.isEmpty()) {
+            journal.descartar(segmentos);
+        } else {
+            Path destino = journal.arquivarRejeitados(segmentos, rejeitados);
+            LOGGER.error("{} remoções de estoque já reservadas foram recusadas pelo banco e não foram aplicadas; "
+                    + "segmentos do journal preservados em {} para conciliação: {}", rejeitados.size(), destino, rejeitados);
+        }
+        removerAplicados(segmentos);
+    }
+
+    // o registro de aplicado só protege o segmento enquanto o arquivo existe; removido depois do arquivo, nunca antes,
+    // e se a remoção falhar sobra apenas uma linha inofensiva, então a falha não interrompe a descarga
+    private void removerAplicados(List<Path> segmentos) {
+        if (segmentos.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> estoqueJournalAplicadoRepository.deleteAllByIdInBatch(
+                    segmentos.stream().map(EstoqueJournal::nome).toList()));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Não foi possível remover os registros de segmentos do journal já descartados.", e);
+        }
+    }
+
+    private static final class Saldo {
+        private final AtomicInteger disponivel;
+        private final AtomicInteger pendente = new AtomicInteger();
+
+        private Saldo(int disponivel) {
+            this.disponivel = new AtomicInteger(disponivel);
+        }
+
+        private boolean reservar(int quantidade) {
+            int atual;
+            do {
+                atual = disponivel.get();
+                if (atual < quantidade) {
+                    return false;
+                }
+            } while (!disponivel.compareAndSet(atual, atual - quantidade));
+            return true;
+        }
+
+        private void liberar(int quantidade) {
+            disponivel.addAndGet(quantidade);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+public class IndiceBuscaProduto {
+    static final int TAMANHO_MINIMO_APROXIMADO = 4;
+    private static final int FATOR_CANDIDATOS = 4;
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // estimativas para JVM 64 bits com compressed oops
+    private static final int BYTES_STRING = 40;
+    private static final int BYTES_ENTRADA_MAPA = 40;
+    private static final int BYTES_CONJUNTO = 64;
+    private static final int BYTES_UUID = 32;
+    private static final int BYTES_ENTRADA = 16;
+    private static final int BYTES_ARRAY = 16;
+
+    private final Map<UUID, Entrada> entradas = new HashMap<>();
+    private final TreeMap<String, Set<UUID>> termos = new TreeMap<>();
+    private final Map<String, Set<String>> variantes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long bytesEstimados;
+
+    public void indexar(UUID id, String nome) {
+        lock.writeLock().lock();
+        try {
+            indexar(id, nome, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexar(Collection<? extends Produto> produtos) {
+        lock.writeLock().lock();
+        try {
+            for (Produto produto : produtos) {
+                indexar(produto.getId(), produto.getNome(), true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean indexarSeAusente(UUID id, String nome) {
+        lock.writeLock().lock();
+        try {
+            return indexar(id, nome, false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Entrada entrada = entradas.remove(id);
+            if (entrada != null) {
+                desindexar(id, entrada);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ResultadoBusca> buscar(String consulta, int limite) {
+        List<String> tokens = tokens(consulta);
+        if (tokens.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        boolean ultimoCompleto = !Character.isLetterOrDigit(consulta.charAt(consulta.length() - 1));
+        int maximoCandidatos = (int) Math.min(Integer.MAX_VALUE, (long) limite * FATOR_CANDIDATOS);
+        lock.readLock().lock();
+        try {
+            List<Set<String>> completos = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size() - 1; i++) {
+                completos.add(termosAceitos(tokens.get(i)));
+            }
+            String prefixo = tokens.get(tokens.size() - 1);
+            SortedMap<String, Set<UUID>> faixa = termos.subMap(prefixo, prefixo + Character.MAX_VALUE);
+            if (ultimoCompleto || faixa.isEmpty()) {
+                completos.add(termosAceitos(prefixo));
+                prefixo = null;
+            }
+            if (completos.stream().anyMatch(Set::isEmpty)) {
+                return List.of();
+            }
+            // a restrição mais seletiva guia a varredura e é verificada primeiro; termos do prefixo saem em ordem alfabética
+            completos.sort(Comparator.comparingLong(aceitos -> ocorrencias(aceitos, Long.MAX_VALUE)));
+            Collection<Set<UUID>> guia = null;
+            long ocorrenciasGuia = Long.MAX_VALUE;
+            if (!completos.isEmpty()) {
+                guia = postings(completos.get(0));
+                ocorrenciasGuia = ocorrencias(guia, Long.MAX_VALUE);
+            }
+            if (prefixo != null && (guia == null || ocorrencias(faixa.values(), ocorrenciasGuia) < ocorrenciasGuia)) {
+                guia = faixa.values();
+            }
+            Map<UUID, Entrada> encontrados = new LinkedHashMap<>();
+            candidatos:
+            for (Set<UUID> ids : guia) {
+                for (UUID id : ids) {
+                    if (!encontrados.containsKey(id) && atende(id, completos, prefixo)) {
+                        encontrados.put(id, entradas.get(id));
+                        if (encontrados.size() >= maximoCandidatos) {
+                            break candidatos;
+                        }
+                    }
+                }
+            }
+            return ordenar(encontrados, new HashSet<>(tokens), limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getProdutos() {
+        lock.readLock().lock();
+        try {
+            return entradas.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTermos() {
+        lock.readLock().lock();
+        try {
+            return termos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getBytesEstimados() {
+        lock.readLock().lock();
+        try {
+            return bytesEstimados;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokens(String texto) {
+        if (texto == null) {
+            return List.of();
+        }
+        String normalizado = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARADORES.split(normalizado)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private boolean indexar(UUID id, String nome, boolean substituir) {
+        Entrada anterior = entradas.get(id);
+        if (anterior != null) {
+            if (!substituir) {
+                return false;
+            }
+            if (anterior.nome.equals(nome)) {
+                return true;
+            }
+            entradas.remove(id);
+            desindexar(id, anterior);
+        }
+        String[] tokens = tokens(nome).stream().distinct().toArray(String[]::new);
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = adicionarTermo(tokens[i], id);
+        }
+        entradas.put(id, new Entrada(nome, tokens));
+        bytesEstimados += bytes(nome, tokens);
+        return true;
+    }
+
+    private void desindexar(UUID id, Entrada entrada) {
+        for (String token : entrada.tokens) {
+            removerTermo(token, id);
+        }
+        bytesEstimados -= bytes(entrada.nome, entrada.tokens);
+    }
+
+    private String adicionarTermo(String token, UUID id) {
+        Map.Entry<String, Set<UUID>> existente = termos.ceilingEntry(token);
+        if (existente != null && existente.getKey().equals(token)) {
+            if (existente.getValue().add(id)) {
+                bytesEstimados += BYTES_ENTRADA_MAPA;
+            }
+            return existente.getKey();
+        }
+        Set<UUID> ids = new HashSet<>(4);
+        ids.add(id);
+        termos.put(token, ids);
+        bytesEstimados += BYTES_STRING + token.length() + BYTES_ENTRADA_MAPA + BYTES_CONJUNTO + BYTES_ENTRADA_MAPA;
+        if (aproximavel(token)) {
+            for (int i = 0; i < token.length(); i++) {
+                adicionarVariante(semCaractere(token, i), token);
+            }
+        }
+        return token;
+    }
+
+    private void removerTermo(String token, UUID id) {
+        Set<UUID> ids = termos.get(token);
+        if (ids == null || !ids.remove(id)) {
+            return;
+        }
+        bytesEstimados -= BYTES_ENTRADA_MAPA;
+        if (!ids.isEmpty()) {
+            return;
+        }
+        termos.remove(token);
+        bytesEstimados -= BYTES_STRING + token.length() + BYTES_ENTRADA_MAPA + BYTES_CONJUNTO;
+        if (aproximavel(token)) {
+            for (int i = 0; i < token.length(); i++) {
+                removerVariante(semCaractere(token, i), token);
+            }
+        }
+    }
+
+    private void adicionarVariante(String variante, String token) {
+        Set<String> tokens = variantes.get(variante);
+        if (tokens == null) {
+            tokens = new HashSet<>(2);
+            variantes.put(variante, tokens);
+            bytesEstimados += BYTES_STRING + variante.length() + BYTES_ENTRADA_MAPA + BYTES_CONJUNTO;
+        }
+        if (tokens.add(token)) {
+            bytesEstimados += BYTES_ENTRADA_MAPA;
+        }
+    }
+
+    private void removerVariante(String variante, String token) {
+        Set<String> tokens = variantes.get(variante);
+        if (tokens == null || !tokens.remove(token)) {
+            return;
+        }
+        bytesEstimados -= BYTES_ENTRADA_MAPA;
+        if (tokens.isEmpty()) {
+            variantes.remove(variante);
+            bytesEstimados -= BYTES_STRING + variante.length() + BYTES_ENTRADA_MAPA + BYTES_CONJUNTO;
+        }
+    }
+
+    private Set<String> termosAceitos(String token) {
+        if (termos.containsKey(token)) {
+            return Set.of(token);
+        }
+        return termosAproximados(token);
+    }
+
+    private Set<String> termosAproximados(String token) {
+        if (!aproximavel(token)) {
+            return Set.of();
+        }
+        Set<String> aproximados = new HashSet<>(variantes.getOrDefault(token, Set.of()));
+        for (int i = 0; i < token.length(); i++) {
+            String variante = semCaractere(token, i);
+            if (termos.containsKey(variante)) {
+                aproximados.add(variante);
+            }
+            for (String candidato : variantes.getOrDefault(variante, Set.of())) {
+                if (diferencaUnica(candidato, token)) {
+                    aproximados.add(candidato);
+                }
+            }
+        }
+        return aproximados;
+    }
+
+    private boolean atende(UUID id, List<Set<String>> completos, String prefixo) {
+        for (Set<String> aceitos : completos) {
+            if (!contem(aceitos, id)) {
+                return false;
+            }
+        }
+        if (prefixo == null) {
+            return true;
+        }
+        for (String token : entradas.get(id).tokens) {
+            if (token.startsWith(prefixo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean contem(Set<String> aceitos, UUID id) {
+        for (String termo : aceitos) {
+            if (termos.get(termo).contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Set<UUID>> postings(Set<String> aceitos) {
+        List<Set<UUID>> postings = new ArrayList<>(aceitos.size());
+        for (String termo : aceitos) {
+            postings.add(termos.get(termo));
+        }
+        return postings;
+    }
+
+    private long ocorrencias(Set<String> aceitos, long limite) {
+        return ocorrencias(postings(aceitos), limite);
+    }
+
+    private static long ocorrencias(Collection<Set<UUID>> postings, long limite) {
+        long ocorrencias = 0;
+        for (Set<UUID> ids : postings) {
+            ocorrencias += ids.size();
+            if (ocorrencias >= limite) {
+                break;
+            }
+        }
+        return ocorrencias;
+    }
+
+    private static List<ResultadoBusca> ordenar(Map<UUID, Entrada> encontrados, Set<String> tokensConsulta, int limite) {
+        List<Map.Entry<UUID, Entrada>> ordenados = new ArrayList<>(encontrados.entrySet());
+        Map<UUID, Integer> pontuacoes = new HashMap<>();
+        ordenados.forEach(e -> pontuacoes.put(e.getKey(), e.getValue().pontuacao(tokensConsulta)));
+        ordenados.sort(Comparator.<Map.Entry<UUID, Entrada>>comparingInt(e -> -pontuacoes.get(e.getKey()))
+                .thenComparingInt(e -> e.getValue().nome.length())
+                .thenComparing(e -> e.getValue().nome));
+        return ordenados.stream()
+                .limit(limite)
+                .map(e -> new ResultadoBusca(e.getKey(), e.getValue().nome))
+                .toList();
+    }
+
+    // códigos e medidas ("500g", "sku123") não recebem tolerância a erros de digitação
+    private static boolean aproximavel(String token) {
+        return token.length() >= TAMANHO_MINIMO_APROXIMADO && token.chars().allMatch(Character::isLetter);
+    }
+
+    private static String semCaractere(String token, int posicao) {
+        return token.substring(0, posicao) + token.substring(posicao + 1);
+    }
+
+    private static boolean diferencaUnica(String candidato, String token) {
+        if (candidato.length() != token.length()) {
+            return false;
+        }
+        int i = 0;
+        while (i < token.length() && candidato.charAt(i) == token.charAt(i)) {
+            i++;
+        }
+        if (i == token.length()) {
+            return false;
+        }
+        if (candidato.regionMatches(i + 1, token, i + 1, token.length() - i - 1)) {
+            return true;
+        }
+        return i + 1 < token.length()
+                && candidato.charAt(i) == token.charAt(i + 1)
+                && candidato.charAt(i + 1) == token.charAt(i)
+                && candidato.regionMatches(i + 2, token, i + 2, token.length() - i - 2);
+    }
+
+    private static long bytes(String nome, String[] tokens) {
+        return BYTES_ENTRADA_MAPA + BYTES_UUID + BYTES_ENTRADA + BYTES_STRING + nome.length()
+                + BYTES_ARRAY + 4L * tokens.length;
+    }
+
+    private static final class Entrada {
+        private final String nome;
+        private final String[] tokens;
+
+        private Entrada(String nome, String[] tokens) {
+            this.nome = nome;
+            this.tokens = tokens;
+        }
+
+        private int pontuacao(Set<String> tokensConsulta) {
+            int pontuacao = 0;
+            for (String token : tokens) {
+                if (tokensConsulta.contains(token)) {
+                    pontuacao++;
+                }
+            }
+            return pontuacao;
+        }
+    }
+}
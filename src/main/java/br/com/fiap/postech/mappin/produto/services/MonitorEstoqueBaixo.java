@@ -0,0 +1,135 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.repository.ProdutoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class MonitorEstoqueBaixo implements InitializingBean, DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MonitorEstoqueBaixo.class);
+    private static final int TAMANHO_CONSULTA = 500;
+
+    private final ProdutoRepository produtoRepository;
+    private final ObjectProvider<EstoqueBaixoListener> listeners;
+    private final int limite;
+    private final Duration intervalo;
+    private final int capacidade;
+    private final ThreadPoolTaskScheduler taskScheduler;
+    private final Counter eventos;
+    private final Counter verificacoesDescartadas;
+    private final Set<UUID> pendentes = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> abaixoDoLimite = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public MonitorEstoqueBaixo(ProdutoRepository produtoRepository,
+                               ObjectProvider<EstoqueBaixoListener> listeners,
+                               @Value("${mappin.estoque.baixo.limite:10}") int limite,
+                               @Value("${mappin.estoque.baixo.intervalo:PT0.5S}") Duration intervalo,
+                               @Value("${mappin.estoque.baixo.capacidade:10000}") int capacidade,
+                               MeterRegistry meterRegistry) {
+        this.produtoRepository = produtoRepository;
+        this.listeners = listeners;
+        this.limite = limite;
+        this.intervalo = intervalo;
+        this.capacidade = capacidade;
+        this.taskScheduler = new ThreadPoolTaskScheduler();
+        this.taskScheduler.setThreadNamePrefix("estoque-baixo-");
+        this.eventos = meterRegistry.counter("produto.estoque.baixo.eventos");
+        this.verificacoesDescartadas = meterRegistry.counter("produto.estoque.baixo.descartados", "etapa", "verificacao");
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        taskScheduler.initialize();
+        taskScheduler.scheduleWithFixedDelay(this::verificarComSeguranca, Instant.now().plus(intervalo), intervalo);
+    }
+
+    @Override
+    public void destroy() {
+        taskScheduler.shutdown();
+    }
+
+    // roda após o commit da remoção: só registra o id, a consulta e o aviso ficam com a thread do monitor
+    @TransactionalEventListener(fallbackExecution = true)
+    public void estoqueRemovido(EstoqueRemovidoEvent evento) {
+        for (UUID id : evento.getIds()) {
+            if (pendentes.size() < capacidade || pendentes.contains(id)) {
+                pendentes.add(id);
+            } else {
+                verificacoesDescartadas.increment();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void produtosAlterados(ProdutosAlteradosEvent evento) {
+        for (Produto produto : evento.getSalvos()) {
+            if (produto.getQuantidade() != null && produto.getQuantidade() > limite) {
+                abaixoDoLimite.remove(produto.getId());
+            }
+        }
+        evento.getRemovidos().forEach(abaixoDoLimite::remove);
+    }
+
+    public void verificar() {
+        while (!pendentes.isEmpty()) {
+            List<UUID> ids = new ArrayList<>(TAMANHO_CONSULTA);
+            Iterator<UUID> iterator = pendentes.iterator();
+            while (iterator.hasNext() && ids.size() < TAMANHO_CONSULTA) {
+                ids.add(iterator.next());
+                iterator.remove();
+            }
+            List<Produto> produtos;
+            try {
+                produtos = produtoRepository.findAllById(ids);
+            } catch (RuntimeException e) {
+                pendentes.addAll(ids);
+                throw e;
+            }
+            LocalDateTime agora = LocalDateTime.now();
+            for (Produto produto : produtos) {
+                if (produto.getQuantidade() > limite) {
+                    abaixoDoLimite.remove(produto.getId());
+                } else if (abaixoDoLimite.add(produto.getId())) {
+                    notificar(new EstoqueBaixoEvent(produto.getId(), produto.getNome(), produto.getQuantidade(), limite, agora));
+                }
+            }
+        }
+    }
+
+    private void notificar(EstoqueBaixoEvent evento) {
+        eventos.increment();
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.estoqueBaixo(evento);
+            } catch (RuntimeException e) {
+                LOGGER.error("Falha ao notificar estoque baixo do produto {} para {}.", evento.getId(), listener, e);
+            }
+        });
+    }
+
+    private void verificarComSeguranca() {
+        try {
+            verificar();
+        } catch (RuntimeException e) {
+            LOGGER.error("Falha ao verificar o estoque baixo; nova tentativa no próximo ciclo.", e);
+        }
+    }
+}
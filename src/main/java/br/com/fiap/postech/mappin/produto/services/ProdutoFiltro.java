@@ -0,0 +1,50 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import java.time.LocalDateTime;
+
+public class ProdutoFiltro {
+    private final String nome;
+    private final String nomeContem;
+    private final Double precoMinimo;
+    private final Double precoMaximo;
+    private final Integer quantidadeAbaixoDe;
+    private final LocalDateTime atualizadoDesde;
+
+    public ProdutoFiltro(String nome, String nomeContem, Double precoMinimo, Double precoMaximo, Integer quantidadeAbaixoDe,
+                         LocalDateTime atualizadoDesde) {
+        this.nome = nome;
+        this.nomeContem = nomeContem;
+        this.precoMinimo = precoMinimo;
+        this.precoMaximo = precoMaximo;
+        this.quantidadeAbaixoDe = quantidadeAbaixoDe;
+        this.atualizadoDesde = atualizadoDesde;
+    }
+
+    public boolean isSomenteNome() {
+        return nomeContem == null && precoMinimo == null && precoMaximo == null && quantidadeAbaixoDe == null && atualizadoDesde == null;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getNomeContem() {
+        return nomeContem;
+    }
+
+    public Double getPrecoMinimo() {
+        return precoMinimo;
+    }
+
+    public Double getPrecoMaximo() {
+        return precoMaximo;
+    }
+
+    public Integer getQuantidadeAbaixoDe() {
+        return quantidadeAbaixoDe;
+    }
+
+    public LocalDateTime getAtualizadoDesde() {
+        return atualizadoDesde;
+    }
+}
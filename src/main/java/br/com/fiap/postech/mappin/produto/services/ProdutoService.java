@@ -1,22 +1,39 @@
 package br.com.fiap.postech.mappin.produto.services;
 
 import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.integration.ProdutoEstoqueResponse;
 import br.com.fiap.postech.mappin.produto.integration.ProdutoRequest;
+import br.com.fiap.postech.mappin.produto.integration.ProdutosPorIdResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface ProdutoService {
     Produto save(Produto produto);
 
+    List<Produto> saveAll(List<? extends Produto> produtos);
+
     Page<Produto> findAll(Pageable pageable, Produto produto);
 
+    Window<Produto> findAll(ScrollPosition scrollPosition, int size, Produto produto);
+
+    Page<Produto> findAll(Pageable pageable, ProdutoFiltro filtro);
+
+    Window<Produto> findAll(ScrollPosition scrollPosition, int size, ProdutoFiltro filtro);
+
     Produto findById(UUID id);
 
+    ProdutosPorIdResponse findAllById(List<UUID> ids);
+
     Produto update(UUID id, Produto produto);
 
     void delete(UUID id);
 
     void removerDoEstoque(ProdutoRequest produtoRequest);
+
+    List<ProdutoEstoqueResponse> removerDoEstoqueEmLote(List<ProdutoRequest> produtoRequests);
 }
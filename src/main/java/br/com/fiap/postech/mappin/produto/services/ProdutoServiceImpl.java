@@ -1,41 +1,136 @@
 package br.com.fiap.postech.mappin.produto.services;
 
+import br.com.fiap.postech.mappin.produto.config.CacheConfiguration;
 import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.integration.ProdutoEstoqueResponse;
 import br.com.fiap.postech.mappin.produto.integration.ProdutoRequest;
+import br.com.fiap.postech.mappin.produto.integration.ProdutosPorIdResponse;
 import br.com.fiap.postech.mappin.produto.repository.ProdutoRepository;
+import br.com.fiap.postech.mappin.produto.repository.ProdutoSpecifications;
 import io.micrometer.common.util.StringUtils;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "produto.service", histogram = true)
 public class ProdutoServiceImpl implements ProdutoService {
-    
+    private static final Sort ORDENACAO_CURSOR = Sort.by("nome", "id");
+    static final int LIMITE_IDS = 10000;
+    static final int TAMANHO_CONSULTA_IDS = 1000;
+    private static final String CONFLITOS_ESTOQUE = "produto.estoque.conflitos";
+
     private final ProdutoRepository
             produtoRepository;
+    private final CacheManager cacheManager;
+    private final Optional<EstoqueWriteBehind> estoqueWriteBehind;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProdutoValidacao produtoValidacao;
+    private final Counter rejeicoesQuantidadeARemover;
+    private final Counter conflitosEstoqueUnitario;
+    private final Counter conflitosEstoqueLote;
+    private final Counter conflitosCadastro;
 
     @Autowired
-    public ProdutoServiceImpl(ProdutoRepository produtoRepository) {
+    public ProdutoServiceImpl(ProdutoRepository produtoRepository, CacheManager cacheManager,
+                              Optional<EstoqueWriteBehind> estoqueWriteBehind, ApplicationEventPublisher eventPublisher,
+                              ProdutoValidacao produtoValidacao, MeterRegistry meterRegistry) {
         this.produtoRepository = produtoRepository;
+        this.cacheManager = cacheManager;
+        this.estoqueWriteBehind = estoqueWriteBehind;
+        this.eventPublisher = eventPublisher;
+        this.produtoValidacao = produtoValidacao;
+        this.rejeicoesQuantidadeARemover = meterRegistry.counter(ProdutoValidacao.REJEICOES, "motivo", "quantidade_a_remover");
+        this.conflitosEstoqueUnitario = meterRegistry.counter(CONFLITOS_ESTOQUE, "operacao", "unitario");
+        this.conflitosEstoqueLote = meterRegistry.counter(CONFLITOS_ESTOQUE, "operacao", "lote");
+        this.conflitosCadastro = meterRegistry.counter("produto.cadastro.conflitos");
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PRODUTOS, key = "#result.id")
     public Produto save(Produto produto) {
-        validaQuantidade(produto);
-        validaPreco(produto);
+        produtoValidacao.valida(produto);
+        Produto produtoSalvo;
+        try {
+            produtoSalvo = salvarPorNome(produto);
+        } catch (DataIntegrityViolationException exception) {
+            if (!ProdutoValidacao.violaNomeUnico(exception)) {
+                throw exception;
+            }
+            conflitosCadastro.increment();
+            produtoSalvo = salvarPorNome(produto);
+        }
+        eventPublisher.publishEvent(ProdutosAlteradosEvent.salvos(List.of(produtoSalvo)));
+        return produtoSalvo;
+    }
+
+    private Produto salvarPorNome(Produto produto) {
         produtoRepository.findByNome(produto.getNome())
             .ifPresentOrElse(
-                    p -> produto.setId(p.getId()),
-                    () -> produto.setId(UUID.randomUUID())
+                    p -> {
+                        produto.setId(p.getId());
+                        produto.marcarComoPersistido();
+                    },
+                    () -> {
+                        produto.setId(UUID.randomUUID());
+                        produto.marcarComoNovo();
+                    }
             );
         return produtoRepository.save(produto);
     }
 
+    @Override
+    @Transactional
+    public List<Produto> saveAll(List<? extends Produto> produtos) {
+        Map<String, Produto> produtosPorNome = new LinkedHashMap<>();
+        for (Produto produto : produtos) {
+            produtoValidacao.valida(produto);
+            produtosPorNome.put(produto.getNome(), produto);
+        }
+        Map<String, Produto> produtosExistentes = new HashMap<>();
+        produtoRepository.findByNomeIn(produtosPorNome.keySet())
+                .forEach(p -> produtosExistentes.put(p.getNome(), p));
+        List<Produto> produtosASalvar = new ArrayList<>(produtosPorNome.size());
+        Cache cache = cacheManager.getCache(CacheConfiguration.PRODUTOS);
+        for (Produto produto : produtosPorNome.values()) {
+            Produto produtoExistente = produtosExistentes.get(produto.getNome());
+            if (produtoExistente == null) {
+                produto.setId(UUID.randomUUID());
+                produto.marcarComoNovo();
+                produtosASalvar.add(produto);
+            } else {
+                produtoExistente.setQuantidade(produto.getQuantidade());
+                produtoExistente.setPreco(produto.getPreco());
+                produtosASalvar.add(produtoExistente);
+                if (cache != null) {
+                    cache.evict(produtoExistente.getId());
+                }
+            }
+        }
+        // o flush antecipa para cá a violação de uk_produto_nome de um cadastro concorrente, que senão só apareceria no commit
+        List<Produto> produtosSalvos = produtoRepository.saveAllAndFlush(produtosASalvar);
+        eventPublisher.publishEvent(ProdutosAlteradosEvent.salvos(produtosSalvos));
+        return produtosSalvos;
+    }
+
     @Override
     public Page<Produto> findAll(Pageable pageable, Produto produto) {
         Example<Produto> produtoExample = Example.of(produto);
@@ -43,12 +138,85 @@ public class ProdutoServiceImpl implements ProdutoService {
     }
 
     @Override
+    public Window<Produto> findAll(ScrollPosition scrollPosition, int size, Produto produto) {
+        Example<Produto> produtoExample = Example.of(produto);
+        return produtoRepository.findBy(produtoExample, q -> q.sortBy(ORDENACAO_CURSOR).limit(size).scroll(scrollPosition));
+    }
+
+    @Override
+    public Page<Produto> findAll(Pageable pageable, ProdutoFiltro filtro) {
+        validaFiltro(filtro);
+        return produtoRepository.findAll(ProdutoSpecifications.filtro(filtro), pageable);
+    }
+
+    @Override
+    public Window<Produto> findAll(ScrollPosition scrollPosition, int size, ProdutoFiltro filtro) {
+        validaFiltro(filtro);
+        return produtoRepository.findBy(ProdutoSpecifications.filtro(filtro),
+                q -> q.sortBy(ORDENACAO_CURSOR).limit(size).scroll(scrollPosition));
+    }
+
+    private static void validaFiltro(ProdutoFiltro filtro) {
+        if (filtro.getPrecoMinimo() != null && filtro.getPrecoMaximo() != null
+                && filtro.getPrecoMinimo() > filtro.getPrecoMaximo()) {
+            throw new IllegalArgumentException("O preço mínimo não pode ser maior que o preço máximo.");
+        }
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfiguration.PRODUTOS, key = "#id")
     public Produto findById(UUID id) {
         return produtoRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Produto não encontrado com o ID: " + id));
     }
 
     @Override
+    public ProdutosPorIdResponse findAllById(List<UUID> ids) {
+        if (ids.size() > LIMITE_IDS) {
+            throw new IllegalArgumentException("A consulta aceita no máximo " + LIMITE_IDS + " ids.");
+        }
+        Set<UUID> idsDistintos = new LinkedHashSet<>();
+        for (UUID id : ids) {
+            if (id == null) {
+                throw new IllegalArgumentException("A lista de ids não pode conter valores nulos.");
+            }
+            idsDistintos.add(id);
+        }
+        Map<UUID, Produto> produtosPorId = new HashMap<>();
+        List<UUID> idsForaDoCache = new ArrayList<>();
+        Cache cache = cacheManager.getCache(CacheConfiguration.PRODUTOS);
+        for (UUID id : idsDistintos) {
+            Produto produto = cache == null ? null : cache.get(id, Produto.class);
+            if (produto == null) {
+                idsForaDoCache.add(id);
+            } else {
+                produtosPorId.put(id, produto);
+            }
+        }
+        for (int inicio = 0; inicio < idsForaDoCache.size(); inicio += TAMANHO_CONSULTA_IDS) {
+            List<UUID> lote = idsForaDoCache.subList(inicio, Math.min(inicio + TAMANHO_CONSULTA_IDS, idsForaDoCache.size()));
+            for (Produto produto : produtoRepository.findAllById(lote)) {
+                produtosPorId.put(produto.getId(), produto);
+                if (cache != null) {
+                    cache.putIfAbsent(produto.getId(), produto);
+                }
+            }
+        }
+        List<Produto> produtos = new ArrayList<>(produtosPorId.size());
+        List<UUID> naoEncontrados = new ArrayList<>();
+        for (UUID id : idsDistintos) {
+            Produto produto = produtosPorId.get(id);
+            if (produto == null) {
+                naoEncontrados.add(id);
+            } else {
+                produtos.add(produto);
+            }
+        }
+        return new ProdutosPorIdResponse(produtos, naoEncontrados);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PRODUTOS, key = "#id")
     public Produto update(UUID id, Produto produtoParam) {
         Produto produto = findById(id);
         if (StringUtils.isNotEmpty(produtoParam.getNome())) {
@@ -61,40 +229,108 @@ public class ProdutoServiceImpl implements ProdutoService {
             produto.setNome(produtoParam.getNome());
         }
         if (produtoParam.getQuantidade() != null && !produtoParam.getQuantidade().equals(produto.getQuantidade())) {
-            validaQuantidade(produtoParam);
+            produtoValidacao.validaQuantidade(produtoParam);
             produto.setQuantidade(produtoParam.getQuantidade());
         }
         if (produtoParam.getPreco() != null && !produtoParam.getPreco().equals(produto.getPreco())) {
-            validaPreco(produtoParam);
+            produtoValidacao.validaPreco(produtoParam);
             produto.setPreco(produtoParam.getPreco());
         }
-        produto = produtoRepository.save(produto);
-        return produto;
-    }
-
-    private static void validaQuantidade(Produto produto) {
-        if (produto.getQuantidade() < 1) {
-            throw new IllegalArgumentException("Não é possível alterar a quantidade de um produto para um valor menor ou igual a zero.");
-        }
-    }
-
-    private static void validaPreco(Produto produto) {
-        if (produto.getPreco().compareTo(0d) < 0) {
-            throw new IllegalArgumentException("Não é possível alterar o preco de um produto para um valor menor ou igual a zero.");
+        try {
+            produto = produtoRepository.save(produto);
+        } catch (DataIntegrityViolationException exception) {
+            if (!ProdutoValidacao.violaNomeUnico(exception)) {
+                throw exception;
+            }
+            throw new IllegalArgumentException("Já existe um produto com o nome: " + produto.getNome());
         }
+        eventPublisher.publishEvent(ProdutosAlteradosEvent.salvos(List.of(produto)));
+        return produto;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PRODUTOS, key = "#id")
     public void delete(UUID id) {
         findById(id);
         produtoRepository.deleteById(id);
+        eventPublisher.publishEvent(ProdutosAlteradosEvent.removido(id));
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfiguration.PRODUTOS, key = "#produtoRequest.id")
+    @Transactional
     public void removerDoEstoque(ProdutoRequest produtoRequest) {
-        Produto produtoDb = findById(produtoRequest.getId());
-        produtoDb.setQuantidade(produtoDb.getQuantidade() - produtoRequest.getQuantidade());
-        validaQuantidade(produtoDb);
-        produtoRepository.save(produtoDb);
+        validaQuantidadeARemover(produtoRequest);
+        boolean removido = estoqueWriteBehind
+                .map(e -> e.reservar(new TreeMap<>(Map.of(produtoRequest.getId(), produtoRequest.getQuantidade()))).isEmpty())
+                .orElseGet(() -> produtoRepository.removerDoEstoque(produtoRequest.getId(), produtoRequest.getQuantidade()) > 0);
+        if (!removido) {
+            conflitosEstoqueUnitario.increment();
+            findById(produtoRequest.getId());
+            throw new IllegalArgumentException(ProdutoValidacao.QUANTIDADE_INVALIDA);
+        }
+        if (estoqueWriteBehind.isEmpty()) {
+            eventPublisher.publishEvent(new EstoqueRemovidoEvent(List.of(produtoRequest.getId())));
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<ProdutoEstoqueResponse> removerDoEstoqueEmLote(List<ProdutoRequest> produtoRequests) {
+        SortedMap<UUID, Integer> quantidadesPorId = new TreeMap<>();
+        for (ProdutoRequest produtoRequest : produtoRequests) {
+            validaQuantidadeARemover(produtoRequest);
+            quantidadesPorId.merge(produtoRequest.getId(), produtoRequest.getQuantidade(), Integer::sum);
+        }
+        Set<UUID> rejeitados = estoqueWriteBehind
+                .map(e -> e.reservar(quantidadesPorId))
+                .orElseGet(() -> removerDoEstoqueNoBanco(quantidadesPorId));
+        if (rejeitados.isEmpty()) {
+            return produtoRequests.stream()
+                    .map(p -> new ProdutoEstoqueResponse(p.getId(), p.getQuantidade(), ProdutoEstoqueResponse.Situacao.RESERVADO))
+                    .toList();
+        }
+        conflitosEstoqueLote.increment();
+        Set<UUID> existentes = produtoRepository.findAllById(rejeitados).stream()
+                .map(Produto::getId)
+                .collect(Collectors.toSet());
+        throw new ReservaEstoqueException(produtoRequests.stream()
+                .map(p -> new ProdutoEstoqueResponse(p.getId(), p.getQuantidade(), situacaoRejeitada(p.getId(), rejeitados, existentes)))
+                .toList());
+    }
+
+    private Set<UUID> removerDoEstoqueNoBanco(SortedMap<UUID, Integer> quantidadesPorId) {
+        int[] atualizados = produtoRepository.removerDoEstoque(quantidadesPorId);
+        Set<UUID> rejeitados = new HashSet<>();
+        Cache cache = cacheManager.getCache(CacheConfiguration.PRODUTOS);
+        int indice = 0;
+        for (UUID id : quantidadesPorId.keySet()) {
+            if (atualizados[indice++] == 0) {
+                rejeitados.add(id);
+            } else if (cache != null) {
+                cache.evict(id);
+            }
+        }
+        if (rejeitados.isEmpty()) {
+            eventPublisher.publishEvent(new EstoqueRemovidoEvent(quantidadesPorId.keySet()));
+        }
+        return rejeitados;
+    }
+
+    private static ProdutoEstoqueResponse.Situacao situacaoRejeitada(UUID id, Set<UUID> rejeitados, Set<UUID> existentes) {
+        if (!rejeitados.contains(id)) {
+            return ProdutoEstoqueResponse.Situacao.CANCELADO;
+        }
+        return existentes.contains(id) ? ProdutoEstoqueResponse.Situacao.SEM_ESTOQUE : ProdutoEstoqueResponse.Situacao.NAO_ENCONTRADO;
+    }
+
+    private void validaQuantidadeARemover(ProdutoRequest produtoRequest) {
+        if (produtoRequest == null || produtoRequest.getId() == null) {
+            throw new IllegalArgumentException("O id do produto a remover do estoque é obrigatório.");
+        }
+        if (produtoRequest.getQuantidade() == null || produtoRequest.getQuantidade() < 1) {
+            rejeicoesQuantidadeARemover.increment();
+            throw new IllegalArgumentException("A quantidade a remover do estoque deve ser maior que zero.");
+        }
     }
 }
\ No newline at end of file
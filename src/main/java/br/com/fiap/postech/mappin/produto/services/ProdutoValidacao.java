@@ -0,0 +1,58 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+@Component
+public class ProdutoValidacao {
+    static final String QUANTIDADE_INVALIDA = "Não é possível alterar a quantidade de um produto para um valor menor ou igual a zero.";
+    static final String REJEICOES = "produto.validacao.rejeicoes";
+    static final String UNICIDADE_NOME = "uk_produto_nome";
+
+    private final Counter rejeicoesQuantidade;
+    private final Counter rejeicoesPreco;
+
+    public ProdutoValidacao(MeterRegistry meterRegistry) {
+        this.rejeicoesQuantidade = meterRegistry.counter(REJEICOES, "motivo", "quantidade");
+        this.rejeicoesPreco = meterRegistry.counter(REJEICOES, "motivo", "preco");
+    }
+
+    public void valida(Produto produto) {
+        validaQuantidade(produto);
+        validaPreco(produto);
+    }
+
+    public void validaQuantidade(Produto produto) {
+        if (produto.getQuantidade() < 1) {
+            rejeicoesQuantidade.increment();
+            throw new IllegalArgumentException(QUANTIDADE_INVALIDA);
+        }
+    }
+
+    public void validaPreco(Produto produto) {
+        if (produto.getPreco().compareTo(0d) < 0) {
+            rejeicoesPreco.increment();
+            throw new IllegalArgumentException("Não é possível alterar o preco de um produto para um valor menor ou igual a zero.");
+        }
+    }
+
+    // só a violação da unicidade de nome indica um cadastro concorrente; as demais (not null, tamanho) não se resolvem repetindo
+    public static boolean violaNomeUnico(DataIntegrityViolationException exception) {
+        String restricao = null;
+        for (Throwable causa = exception; causa != null && restricao == null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao) {
+                restricao = violacao.getConstraintName();
+            }
+        }
+        if (restricao == null) {
+            restricao = exception.getMostSpecificCause().getMessage();
+        }
+        return restricao != null && restricao.toLowerCase(Locale.ROOT).contains(UNICIDADE_NOME);
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class ProdutosAlteradosEvent {
+    private final List<Produto> salvos;
+    private final List<UUID> removidos;
+
+    public ProdutosAlteradosEvent(List<Produto> salvos, List<UUID> removidos) {
+        this.salvos = salvos;
+        this.removidos = removidos;
+    }
+
+    public static ProdutosAlteradosEvent salvos(List<Produto> salvos) {
+        return new ProdutosAlteradosEvent(salvos, List.of());
+    }
+
+    public static ProdutosAlteradosEvent removido(UUID id) {
+        return new ProdutosAlteradosEvent(List.of(), List.of(id));
+    }
+
+    public List<Produto> getSalvos() {
+        return salvos;
+    }
+
+    public List<UUID> getRemovidos() {
+        return removidos;
+    }
+}
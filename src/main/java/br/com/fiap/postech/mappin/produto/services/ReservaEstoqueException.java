@@ -0,0 +1,18 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import br.com.fiap.postech.mappin.produto.integration.ProdutoEstoqueResponse;
+
+import java.util.List;
+
+public class ReservaEstoqueException extends IllegalArgumentException {
+    private final transient List<ProdutoEstoqueResponse> resultados;
+
+    public ReservaEstoqueException(List<ProdutoEstoqueResponse> resultados) {
+        super("Não foi possível reservar todos os itens do pedido.");
+        this.resultados = resultados;
+    }
+
+    public List<ProdutoEstoqueResponse> getResultados() {
+        return resultados;
+    }
+}
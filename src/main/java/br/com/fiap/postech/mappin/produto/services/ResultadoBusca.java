@@ -0,0 +1,21 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import java.util.UUID;
+
+public class ResultadoBusca {
+    private final UUID id;
+    private final String nome;
+
+    public ResultadoBusca(UUID id, String nome) {
+        this.id = id;
+        this.nome = nome;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+}
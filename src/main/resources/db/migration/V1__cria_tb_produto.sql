@@ -0,0 +1,13 @@
+create extension if not exists pg_trgm;
+
+create table tb_produto (
+    id uuid not null,
+    nome varchar(255) not null,
+    quantidade integer not null,
+    preco float8 not null,
+    data_atualizacao timestamp(6),
+    constraint pk_produto primary key (id),
+    constraint uk_produto_nome unique (nome)
+);
+
+create index ix_produto_nome_trgm on tb_produto using gin (lower(nome) gin_trgm_ops);
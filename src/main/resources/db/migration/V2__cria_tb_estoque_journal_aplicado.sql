@@ -0,0 +1,5 @@
+create table tb_estoque_journal_aplicado (
+    segmento varchar(255) not null,
+    data_aplicacao timestamp(6) not null,
+    constraint pk_estoque_journal_aplicado primary key (segmento)
+);
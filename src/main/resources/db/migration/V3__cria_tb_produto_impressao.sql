@@ -0,0 +1,8 @@
+create table tb_produto_impressao (
+    nome varchar(255) not null,
+    hash bigint not null,
+    execucao bigint not null,
+    constraint pk_produto_impressao primary key (nome)
+);
+
+create index ix_produto_impressao_execucao on tb_produto_impressao (execucao);
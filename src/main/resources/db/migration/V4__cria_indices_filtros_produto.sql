@@ -0,0 +1,5 @@
+create index ix_produto_preco on tb_produto (preco);
+
+create index ix_produto_quantidade on tb_produto (quantidade);
+
+create index ix_produto_data_atualizacao on tb_produto (data_atualizacao);
@@ -0,0 +1,148 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ArquivoBinarioProdutoItemReaderTest {
+    private static final String CONTEUDO = "Fullers ESB,60,23.39\n\"Dogma \"\"Magnum\"\", Opus\",64,20.38\nHoegaarden,88,15\nÁgua Tônica,5,0.0001\n";
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void deveLerOsMesmosProdutosDoCsvConvertido() throws Exception {
+        // Arrange
+        var csv = Files.writeString(diretorio.resolve("produto.csv"), CONTEUDO, StandardCharsets.UTF_8);
+        var binario = diretorio.resolve("produto.mpb");
+        // Act
+        long convertidos = FormatoBinarioProduto.converter(csv, binario);
+        var produtosCsv = lerTodos(new ArquivoMapeadoProdutoItemReader(new FileSystemResource(csv)));
+        var produtosBinario = lerTodos(new ArquivoBinarioProdutoItemReader(new FileSystemResource(binario)));
+        // Assert
+        assertThat(convertidos).isEqualTo(4);
+        assertThat(FormatoBinarioProduto.isBinario(binario)).isTrue();
+        assertThat(FormatoBinarioProduto.isBinario(csv)).isFalse();
+        assertThat(produtosBinario).extracting(Produto::getNome, Produto::getQuantidade, Produto::getPreco)
+                .containsExactlyElementsOf(produtosCsv.stream()
+                        .map(p -> tuple(p.getNome(), p.getQuantidade(), p.getPreco()))
+                        .toList());
+    }
+
+    @Test
+    void deveLerCadaParticaoSemRepetirRegistros() throws Exception {
+        // Arrange
+        var csv = Files.writeString(diretorio.resolve("produto.csv"), CONTEUDO.repeat(50), StandardCharsets.UTF_8);
+        var binario = diretorio.resolve("produto.mpb");
+        FormatoBinarioProduto.converter(csv, binario, FormatoBinarioProduto.ESCALA_PADRAO, FormatoBinarioProduto.TAMANHO_MINIMO_BLOCO);
+        // Act
+        var particoes = new ArquivoProdutoPartitioner(binario, true).partition(3);
+        List<Produto> produtos = new ArrayList<>();
+        for (ExecutionContext particao : particoes.values()) {
+            produtos.addAll(lerTodos(new ArquivoBinarioProdutoItemReader(new FileSystemResource(binario),
+                    particao.getLong(ArquivoProdutoPartitioner.INICIO), particao.getLong(ArquivoProdutoPartitioner.FIM))));
+        }
+        // Assert
+        assertThat(particoes).hasSize(3);
+        assertThat(particoes.values()).allSatisfy(particao -> assertThat(FormatoBinarioProduto.restanteNoBloco(
+                particao.getLong(ArquivoProdutoPartitioner.INICIO), FormatoBinarioProduto.TAMANHO_MINIMO_BLOCO))
+                .isEqualTo(FormatoBinarioProduto.TAMANHO_MINIMO_BLOCO));
+        assertThat(produtos).extracting(Produto::getNome)
+                .containsExactlyElementsOf(lerTodos(new ArquivoMapeadoProdutoItemReader(new FileSystemResource(csv))).stream()
+                        .map(Produto::getNome)
+                        .toList());
+    }
+
+    @Test
+    void deveCriarUmaParticaoPorBloco_quandoHouverMenosBlocosQueParticoes() throws Exception {
+        // Arrange
+        var csv = Files.writeString(diretorio.resolve("produto.csv"), CONTEUDO, StandardCharsets.UTF_8);
+        var binario = diretorio.resolve("produto.mpb");
+        FormatoBinarioProduto.converter(csv, binario);
+        // Act
+        var particoes = new ArquivoProdutoPartitioner(binario, true).partition(4);
+        // Assert
+        assertThat(particoes).hasSize(1);
+        assertThat(particoes.get("particao0").getLong(ArquivoProdutoPartitioner.FIM)).isEqualTo(Files.size(binario));
+    }
+
+    @Test
+    void deveRejeitarRegistroMaiorQueOBloco() throws Exception {
+        // Arrange
+        var csv = Files.writeString(diretorio.resolve("produto.csv"), "x".repeat(FormatoBinarioProduto.TAMANHO_MINIMO_BLOCO) + ",1,1.0\n",
+                StandardCharsets.UTF_8);
+        var binario = diretorio.resolve("produto.mpb");
+        // Act & Assert
+        assertThatThrownBy(() -> FormatoBinarioProduto.converter(csv, binario, FormatoBinarioProduto.ESCALA_PADRAO,
+                FormatoBinarioProduto.TAMANHO_MINIMO_BLOCO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("excede o bloco");
+    }
+
+    @Test
+    void deveRejeitarArquivoSemCabecalho() throws Exception {
+        // Arrange
+        var csv = Files.writeString(diretorio.resolve("produto.csv"), CONTEUDO, StandardCharsets.UTF_8);
+        var reader = new ArquivoBinarioProdutoItemReader(new FileSystemResource(csv));
+        // Act & Assert
+        assertThatThrownBy(() -> reader.open(new ExecutionContext()))
+                .isInstanceOf(ItemStreamException.class);
+    }
+
+    @Test
+    void deveRejeitarArquivoComCabecalhoSemTamanhoDeBloco() throws Exception {
+        // Arrange
+        var saida = new ByteArrayOutputStream();
+        var dados = new DataOutputStream(saida);
+        dados.write(FormatoBinarioProduto.MAGICA);
+        dados.writeByte(FormatoBinarioProduto.ESCALA_PADRAO);
+        dados.writeShort(11);
+        dados.write("Fullers ESB".getBytes(StandardCharsets.UTF_8));
+        dados.writeInt(60);
+        dados.writeLong(233900);
+        var binario = Files.write(diretorio.resolve("produto.mpb"), saida.toByteArray());
+        var reader = new ArquivoBinarioProdutoItemReader(new FileSystemResource(binario));
+        // Act & Assert
+        assertThatThrownBy(() -> reader.open(new ExecutionContext()))
+                .isInstanceOf(ItemStreamException.class)
+                .hasMessageContaining("Tamanho de bloco inválido");
+        assertThatThrownBy(() -> new ArquivoProdutoPartitioner(binario, true).partition(2))
+                .isInstanceOf(ItemStreamException.class);
+    }
+
+    @Test
+    void deveRejeitarPrecoComMaisCasasQueAEscala() {
+        assertThatThrownBy(() -> FormatoBinarioProduto.precoEmPontoFixo(1.23456, 4))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Produto> lerTodos(ItemStreamReader<Produto> reader) throws Exception {
+        List<Produto> produtos = new ArrayList<>();
+        reader.open(new ExecutionContext());
+        try {
+            Produto produto;
+            while ((produto = reader.read()) != null) {
+                produtos.add(produto);
+            }
+        } finally {
+            reader.close();
+        }
+        return produtos;
+    }
+}
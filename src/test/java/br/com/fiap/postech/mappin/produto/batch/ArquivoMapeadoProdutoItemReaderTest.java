@@ -0,0 +1,95 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArquivoMapeadoProdutoItemReaderTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void devePermitirLerArquivo() throws Exception {
+        // Arrange
+        var arquivo = Files.writeString(diretorio.resolve("produto.csv"),
+                "Fullers ESB,60,23.39\r\n\"Dogma \"\"Magnum\"\", Opus\",64,20.38\n\nHoegaarden,88,15\n",
+                StandardCharsets.UTF_8);
+        var reader = new ArquivoMapeadoProdutoItemReader(new FileSystemResource(arquivo));
+        // Act
+        var produtos = lerTodos(reader, new ExecutionContext());
+        // Assert
+        assertThat(produtos).hasSize(3);
+        assertThat(produtos.get(0).getNome()).isEqualTo("Fullers ESB");
+        assertThat(produtos.get(0).getQuantidade()).isEqualTo(60);
+        assertThat(produtos.get(0).getPreco()).isEqualTo(23.39);
+        assertThat(produtos.get(1).getNome()).isEqualTo("Dogma \"Magnum\", Opus");
+        assertThat(produtos.get(2).getPreco()).isEqualTo(15d);
+    }
+
+    @Test
+    void devePermitirLerRecursoForaDoSistemaDeArquivos() throws Exception {
+        // Arrange
+        var recurso = new ByteArrayResource("Paulaner Witbier,90,23.83".getBytes(StandardCharsets.UTF_8));
+        var reader = new ArquivoMapeadoProdutoItemReader(recurso);
+        // Act
+        var produtos = lerTodos(reader, new ExecutionContext());
+        // Assert
+        assertThat(produtos).singleElement()
+                .satisfies(produto -> assertThat(produto.getPreco()).isEqualTo(23.83));
+    }
+
+    @Test
+    void devePermitirRetomarLeitura_aPartirDaUltimaPosicaoGravada() throws Exception {
+        // Arrange
+        var arquivo = Files.writeString(diretorio.resolve("produto.csv"),
+                "Fullers ESB,60,23.39\nHoegaarden,88,15.67\nErdinger Weiss,80,22.89\n", StandardCharsets.UTF_8);
+        var contexto = new ExecutionContext();
+        var reader = new ArquivoMapeadoProdutoItemReader(new FileSystemResource(arquivo));
+        reader.open(contexto);
+        reader.read();
+        reader.update(contexto);
+        reader.close();
+        // Act
+        var produtos = lerTodos(new ArquivoMapeadoProdutoItemReader(new FileSystemResource(arquivo)), contexto);
+        // Assert
+        assertThat(produtos).extracting(Produto::getNome).containsExactly("Hoegaarden", "Erdinger Weiss");
+    }
+
+    @Test
+    void deveGerarExcecao_QuandoLerLinhaInvalida() throws Exception {
+        // Arrange
+        var arquivo = Files.writeString(diretorio.resolve("produto.csv"), "Fullers ESB,sessenta,23.39\n", StandardCharsets.UTF_8);
+        var reader = new ArquivoMapeadoProdutoItemReader(new FileSystemResource(arquivo));
+        reader.open(new ExecutionContext());
+        // Act && Assert
+        assertThatThrownBy(reader::read)
+                .isInstanceOf(FlatFileParseException.class)
+                .satisfies(e -> assertThat(((FlatFileParseException) e).getInput()).isEqualTo("Fullers ESB,sessenta,23.39"));
+        reader.close();
+    }
+
+    private static List<Produto> lerTodos(ArquivoMapeadoProdutoItemReader reader, ExecutionContext contexto) throws Exception {
+        List<Produto> produtos = new ArrayList<>();
+        reader.open(contexto);
+        Produto produto;
+        while ((produto = reader.read()) != null) {
+            produtos.add(produto);
+        }
+        reader.close();
+        return produtos;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArquivoProdutoPartitionerTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void devePermitirParticionarArquivo_alinhadoAoFimDaLinha() throws Exception {
+        // Arrange
+        var conteudo = "Fullers ESB,60,23.39\nHoegaarden,88,15.67\nErdinger Weiss,80,22.89\nPaulaner Witbier,90,23.83\n";
+        var arquivo = Files.writeString(diretorio.resolve("produto.csv"), conteudo, StandardCharsets.UTF_8);
+        var bytes = Files.readAllBytes(arquivo);
+        // Act
+        var particoes = new ArquivoProdutoPartitioner(arquivo).partition(3);
+        // Assert
+        assertThat(particoes).hasSizeBetween(1, 3);
+        long esperado = 0;
+        for (ExecutionContext particao : particoes.values()) {
+            long inicio = particao.getLong(ArquivoProdutoPartitioner.INICIO);
+            long fim = particao.getLong(ArquivoProdutoPartitioner.FIM);
+            assertThat(inicio).isEqualTo(esperado);
+            assertThat(fim).isGreaterThan(inicio);
+            assertThat(bytes[(int) fim - 1]).isEqualTo((byte) '\n');
+            esperado = fim;
+        }
+        assertThat(esperado).isEqualTo(bytes.length);
+    }
+
+    @Test
+    void devePermitirParticionarArquivoVazio() throws Exception {
+        // Arrange
+        var arquivo = Files.createFile(diretorio.resolve("vazio.csv"));
+        // Act
+        var particoes = new ArquivoProdutoPartitioner(arquivo).partition(4);
+        // Assert
+        assertThat(particoes).hasSize(1);
+        assertThat(particoes.values().iterator().next().getLong(ArquivoProdutoPartitioner.FIM)).isZero();
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArquivosProdutoPartitionerTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void deveCriarUmaParticaoPorArquivo_eManterOUltimoArquivoParaNomesRepetidos() throws Exception {
+        // Arrange
+        var areaPreparacaoLote = new AreaPreparacaoLote(diretorio);
+        var destino = areaPreparacaoLote.novoDiretorio();
+        areaPreparacaoLote.adicionar(destino, "primeiro.csv", csv("Hoegaarden,10,15.67\nErdinger Weiss,80,22.89\n"));
+        areaPreparacaoLote.adicionar(destino, "fornecedores.zip", zip(
+                "segundo.csv", "Hoegaarden,20,16.00\nPaulaner Witbier,90,23.83\n",
+                "terceiro.csv", "Paulaner Witbier,95,24.00\n"));
+        // Act
+        var particoes = new ArquivosProdutoPartitioner(destino).partition(1);
+        // Assert
+        assertThat(particoes).hasSize(3);
+        assertThat(particoes.values()).extracting(p -> Path.of(p.getString(ArquivosProdutoPartitioner.ARQUIVO)).getFileName().toString())
+                .containsExactly("00001.csv", "00002.csv", "00003.csv");
+        var primeiro = processor(particoes.get("arquivo0"));
+        var segundo = processor(particoes.get("arquivo1"));
+        var terceiro = processor(particoes.get("arquivo2"));
+        assertThat(primeiro.process(new Produto("Hoegaarden", 10, 15.67))).isNull();
+        assertThat(primeiro.process(new Produto("Erdinger Weiss", 80, 22.89))).isNotNull();
+        assertThat(segundo.process(new Produto("Hoegaarden", 20, 16d))).isNotNull();
+        assertThat(segundo.process(new Produto("Paulaner Witbier", 90, 23.83))).isNull();
+        assertThat(terceiro.process(new Produto("Paulaner Witbier", 95, 24d))).isNotNull();
+        assertThat(particoes.get("arquivo2").containsKey(ArquivosProdutoPartitioner.SUBSTITUIDOS)).isFalse();
+    }
+
+    @Test
+    void naoDeveFiltrarNomesDiferentes_quandoOsHashesColidirem() throws Exception {
+        // Arrange
+        var areaPreparacaoLote = new AreaPreparacaoLote(diretorio);
+        var destino = areaPreparacaoLote.novoDiretorio();
+        areaPreparacaoLote.adicionar(destino, "primeiro.csv", csv("Hoegaarden,10,15.67\nErdinger Weiss,80,22.89\n"));
+        areaPreparacaoLote.adicionar(destino, "segundo.csv", csv("Hoegaarden,20,16.00\nPaulaner Witbier,90,23.83\n"));
+        // Act
+        var particoes = new ArquivosProdutoPartitioner(destino, nome -> 42L).partition(1);
+        // Assert
+        var primeiro = processor(particoes.get("arquivo0"));
+        assertThat(primeiro.process(new Produto("Hoegaarden", 10, 15.67))).isNull();
+        assertThat(primeiro.process(new Produto("Erdinger Weiss", 80, 22.89))).isNotNull();
+        assertThat(processor(particoes.get("arquivo1")).process(new Produto("Paulaner Witbier", 90, 23.83))).isNotNull();
+    }
+
+    @Test
+    void deveCalcularIntersecaoEUniaoDeNomesOrdenados() {
+        // Act
+        var intersecao = ArquivosProdutoPartitioner.intersecao(new long[]{-5, 1, 3, 7}, new long[]{1, 2, 7, 9});
+        var uniao = ArquivosProdutoPartitioner.uniao(new long[]{-5, 1, 3, 7}, new long[]{1, 2, 7, 9});
+        // Assert
+        assertThat(intersecao).containsExactly(1, 7);
+        assertThat(uniao).containsExactly(-5, 1, 2, 3, 7, 9);
+    }
+
+    private static ConflitoArquivosProcessor processor(ExecutionContext particao) throws Exception {
+        return ConflitoArquivosProcessor.carregar(particao.containsKey(ArquivosProdutoPartitioner.SUBSTITUIDOS)
+                ? particao.getString(ArquivosProdutoPartitioner.SUBSTITUIDOS) : null);
+    }
+
+    private static ByteArrayInputStream csv(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ByteArrayInputStream zip(String... nomesEConteudos) throws Exception {
+        var bytes = new ByteArrayOutputStream();
+        try (var zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < nomesEConteudos.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(nomesEConteudos[i]));
+                zip.write(nomesEConteudos[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
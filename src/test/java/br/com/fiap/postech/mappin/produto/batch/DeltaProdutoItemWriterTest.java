@@ -0,0 +1,138 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.entities.ProdutoImpressao;
+import br.com.fiap.postech.mappin.produto.repository.ProdutoImpressaoRepository;
+import br.com.fiap.postech.mappin.produto.repository.ProdutoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class DeltaProdutoItemWriterTest {
+    @Mock
+    private ItemWriter<Produto> delegate;
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private ProdutoImpressaoRepository produtoImpressaoRepository;
+
+    private DeltaProdutoItemWriter deltaProdutoItemWriter;
+
+    private StepExecution stepExecution;
+
+    private AutoCloseable mock;
+
+    @BeforeEach
+    void setUp() {
+        mock = MockitoAnnotations.openMocks(this);
+        deltaProdutoItemWriter = new DeltaProdutoItemWriter(delegate, produtoRepository, produtoImpressaoRepository, 2L);
+        stepExecution = new StepExecution("step", new JobExecution(2L));
+        StepSynchronizationManager.register(stepExecution);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        StepSynchronizationManager.close();
+        mock.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveGravarApenasProdutosNovosOuAlterados() throws Exception {
+        // Arrange
+        var inalterado = new Produto("Inalterado", 10, 5d);
+        var alterado = new Produto("Alterado", 10, 5d);
+        var novo = new Produto("Novo", 1, 1d);
+        when(produtoRepository.findByNomeIn(anyCollection())).thenReturn(List.of(
+                new Produto("Inalterado", 10, 5d), new Produto("Alterado", 9, 5d)));
+        when(produtoImpressaoRepository.findAllById(anyIterable())).thenReturn(List.of(
+                new ProdutoImpressao("Inalterado", DeltaProdutoItemWriter.impressao(inalterado), 1L),
+                new ProdutoImpressao("Alterado", DeltaProdutoItemWriter.impressao(new Produto("Alterado", 9, 5d)), 1L)));
+        // Act
+        deltaProdutoItemWriter.write(new Chunk<>(inalterado, alterado, novo));
+        // Assert
+        ArgumentCaptor<Chunk<Produto>> gravados = ArgumentCaptor.forClass(Chunk.class);
+        verify(delegate, times(1)).write(gravados.capture());
+        assertThat(gravados.getValue().getItems()).containsExactly(alterado, novo);
+        verify(produtoImpressaoRepository, times(1)).saveAllAndFlush(argThat((Iterable<ProdutoImpressao> impressoes) ->
+                impressoes.iterator().next().getNome().equals("Novo")));
+        verify(produtoImpressaoRepository, times(1)).marcarComoVistos(List.of("Inalterado"), 2L);
+        assertThat(stepExecution.getExecutionContext().getLong(DeltaProdutoItemWriter.INALTERADOS)).isEqualTo(1L);
+    }
+
+    @Test
+    void naoDeveChamarODelegate_quandoNenhumProdutoMudou() throws Exception {
+        // Arrange
+        var produto = new Produto("Produto", 10, 5d);
+        when(produtoRepository.findByNomeIn(anyCollection())).thenReturn(List.of(new Produto("Produto", 10, 5d)));
+        when(produtoImpressaoRepository.findAllById(anyIterable())).thenReturn(List.of(
+                new ProdutoImpressao("Produto", DeltaProdutoItemWriter.impressao(produto), 1L)));
+        // Act
+        deltaProdutoItemWriter.write(new Chunk<>(produto));
+        // Assert
+        verify(delegate, never()).write(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveGravarProduto_quandoOBancoDivergirDaImpressao() throws Exception {
+        // Arrange
+        var produto = new Produto("Produto", 10, 5d);
+        when(produtoRepository.findByNomeIn(anyCollection())).thenReturn(List.of(new Produto("Produto", 3, 5d)));
+        when(produtoImpressaoRepository.findAllById(anyIterable())).thenReturn(List.of(
+                new ProdutoImpressao("Produto", DeltaProdutoItemWriter.impressao(produto), 1L)));
+        // Act
+        deltaProdutoItemWriter.write(new Chunk<>(produto));
+        // Assert
+        ArgumentCaptor<Chunk<Produto>> gravados = ArgumentCaptor.forClass(Chunk.class);
+        verify(delegate, times(1)).write(gravados.capture());
+        assertThat(gravados.getValue().getItems()).containsExactly(produto);
+    }
+
+    @Test
+    void deveGravarProduto_quandoTiverSidoRemovidoDoBanco() throws Exception {
+        // Arrange
+        var produto = new Produto("Produto", 10, 5d);
+        when(produtoRepository.findByNomeIn(anyCollection())).thenReturn(List.of());
+        when(produtoImpressaoRepository.findAllById(anyIterable())).thenReturn(List.of(
+                new ProdutoImpressao("Produto", DeltaProdutoItemWriter.impressao(produto), 1L)));
+        // Act
+        deltaProdutoItemWriter.write(new Chunk<>(produto));
+        // Assert
+        verify(delegate, times(1)).write(any());
+    }
+
+    @Test
+    void deveLancarConcurrencyFailure_quandoOutraParticaoGravarAMesmaImpressao() {
+        // Arrange
+        var produto = new Produto("Produto", 10, 5d);
+        when(produtoRepository.findByNomeIn(anyCollection())).thenReturn(List.of());
+        when(produtoImpressaoRepository.findAllById(anyIterable())).thenReturn(List.of());
+        when(produtoImpressaoRepository.saveAllAndFlush(anyIterable()))
+                .thenThrow(new DataIntegrityViolationException("pk_produto_impressao"));
+        // Act & Assert
+        assertThatThrownBy(() -> deltaProdutoItemWriter.write(new Chunk<>(produto)))
+                .isInstanceOf(ConcurrencyFailureException.class)
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashFnvTest {
+    @Test
+    void deveCalcularFnv1aDe64Bits() {
+        // Act & Assert
+        assertThat(HashFnv.hash("")).isEqualTo(0xcbf29ce484222325L);
+        assertThat(HashFnv.hash("a")).isEqualTo(0xaf63dc4c8601ec8cL);
+        assertThat(HashFnv.hash("foobar")).isEqualTo(0x85944171f73967e8L);
+    }
+
+    @Test
+    void deveManterAsImpressoesJaGravadas() {
+        // Act & Assert
+        assertThat(DeltaProdutoItemWriter.impressao(new Produto("cerveja", 10, 5.5d))).isEqualTo(0xefea2cc24f6f66b5L);
+        assertThat(ConflitoArquivosProcessor.hashNome("foobar")).isEqualTo(HashFnv.hash("foobar"));
+    }
+}
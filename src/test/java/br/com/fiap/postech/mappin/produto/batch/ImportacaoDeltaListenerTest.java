@@ -0,0 +1,138 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.repository.ProdutoImpressaoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.batch.core.*;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ImportacaoDeltaListenerTest {
+    private static final long INSTANCIA = 7L;
+
+    @Mock
+    private ProdutoImpressaoRepository produtoImpressaoRepository;
+
+    @Mock
+    private JobExplorer jobExplorer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final JobInstance jobInstance = new JobInstance(INSTANCIA, "cadastroProdutoLoteExecucaoProgramada");
+
+    private ImportacaoDeltaListener importacaoDeltaListener;
+
+    private AutoCloseable mock;
+
+    @BeforeEach
+    void setUp() {
+        mock = MockitoAnnotations.openMocks(this);
+        importacaoDeltaListener = new ImportacaoDeltaListener(produtoImpressaoRepository, jobExplorer, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void deveResumirInalteradosEAusentes_eRemoverAusentes() {
+        // Arrange
+        var jobExecution = criarJobExecution(1L, true, BatchStatus.COMPLETED);
+        adicionarParticao(jobExecution, "particao0", 10L, 3L);
+        adicionarParticao(jobExecution, "particao1", 11L, 4L);
+        when(jobExplorer.getJobExecutions(jobInstance)).thenReturn(List.of(jobExecution));
+        when(produtoImpressaoRepository.countByExecucaoNot(INSTANCIA)).thenReturn(2L);
+        when(produtoImpressaoRepository.findNomesAusentes(eq(INSTANCIA), any(Pageable.class))).thenReturn(List.of("Erdinger Weiss", "Hoegaarden"));
+        // Act
+        importacaoDeltaListener.afterJob(jobExecution);
+        // Assert
+        assertThat(jobExecution.getExitStatus().getExitDescription())
+                .isEqualTo("inalterados=7, ausentes=2 [Erdinger Weiss, Hoegaarden]");
+        verify(produtoImpressaoRepository, times(1)).removerAusentes(INSTANCIA);
+    }
+
+    @Test
+    void deveResumirSemAusentes_quandoTodosOsProdutosForemVistos() {
+        // Arrange
+        var jobExecution = criarJobExecution(1L, true, BatchStatus.COMPLETED);
+        adicionarParticao(jobExecution, "particao0", 10L, 5L);
+        when(jobExplorer.getJobExecutions(jobInstance)).thenReturn(List.of(jobExecution));
+        // Act
+        importacaoDeltaListener.afterJob(jobExecution);
+        // Assert
+        assertThat(jobExecution.getExitStatus().getExitDescription()).isEqualTo("inalterados=5, ausentes=0");
+        verify(produtoImpressaoRepository, never()).removerAusentes(anyLong());
+    }
+
+    @Test
+    void naoDeveRemoverAusentes_quandoImportacaoFalhar() {
+        // Arrange
+        var jobExecution = criarJobExecution(1L, true, BatchStatus.FAILED);
+        adicionarParticao(jobExecution, "particao0", 10L, 2L);
+        when(jobExplorer.getJobExecutions(jobInstance)).thenReturn(List.of(jobExecution));
+        // Act
+        importacaoDeltaListener.afterJob(jobExecution);
+        // Assert
+        assertThat(jobExecution.getExitStatus().getExitDescription()).isEqualTo("inalterados=2");
+        verify(produtoImpressaoRepository, never()).countByExecucaoNot(anyLong());
+        verify(produtoImpressaoRepository, never()).removerAusentes(anyLong());
+    }
+
+    @Test
+    void deveSomarInalteradosDasParticoesConcluidasAntesDoReinicio() {
+        // Arrange
+        var anterior = criarJobExecution(1L, true, BatchStatus.FAILED);
+        adicionarParticao(anterior, "particao0", 10L, 5L);
+        adicionarParticao(anterior, "particao1", 11L, 2L);
+        var reinicio = criarJobExecution(2L, true, BatchStatus.COMPLETED);
+        // a partição reiniciada parte do contexto salvo (2) e soma o que leu depois (2)
+        adicionarParticao(reinicio, "particao1", 12L, 4L);
+        when(jobExplorer.getJobExecutions(jobInstance)).thenReturn(List.of(reinicio, anterior));
+        when(produtoImpressaoRepository.countByExecucaoNot(INSTANCIA)).thenReturn(1L);
+        when(produtoImpressaoRepository.findNomesAusentes(eq(INSTANCIA), any(Pageable.class))).thenReturn(List.of("Hoegaarden"));
+        // Act
+        importacaoDeltaListener.afterJob(reinicio);
+        // Assert
+        assertThat(reinicio.getExitStatus().getExitDescription()).isEqualTo("inalterados=9, ausentes=1 [Hoegaarden]");
+        verify(produtoImpressaoRepository, times(1)).removerAusentes(INSTANCIA);
+    }
+
+    @Test
+    void naoDeveFazerNada_quandoImportacaoNaoForDelta() {
+        // Arrange
+        var jobExecution = criarJobExecution(1L, false, BatchStatus.COMPLETED);
+        // Act
+        importacaoDeltaListener.afterJob(jobExecution);
+        // Assert
+        assertThat(jobExecution.getExitStatus().getExitDescription()).isEmpty();
+        verifyNoInteractions(produtoImpressaoRepository, jobExplorer);
+    }
+
+    private JobExecution criarJobExecution(long id, boolean delta, BatchStatus status) {
+        var jobParameters = new JobParametersBuilder()
+                .addString(ImportacaoDeltaListener.DELTA, String.valueOf(delta), false)
+                .toJobParameters();
+        var jobExecution = new JobExecution(jobInstance, id, jobParameters);
+        jobExecution.setStatus(status);
+        return jobExecution;
+    }
+
+    private static void adicionarParticao(JobExecution jobExecution, String particao, long id, long inalterados) {
+        var stepExecution = jobExecution.createStepExecution("stepExecucaoProgramadaParticao:" + particao);
+        stepExecution.setId(id);
+        stepExecution.getExecutionContext().putLong(DeltaProdutoItemWriter.INALTERADOS, inalterados);
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.batch.core.*;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.item.file.FlatFileParseException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ImportacaoStreamProdutoTest {
+    @Mock
+    private LoteJobLauncher loteJobLauncher;
+
+    @Mock
+    private Job job;
+
+    @Mock
+    private JobExplorer jobExplorer;
+
+    private final FluxoImportacaoRegistry fluxoImportacaoRegistry = new FluxoImportacaoRegistry();
+
+    private final AtomicReference<String> fluxo = new AtomicReference<>();
+
+    private AutoCloseable mock;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mock = MockitoAnnotations.openMocks(this);
+        when(job.getName()).thenReturn("cadastroProdutoLoteStream");
+        when(job.getJobParametersIncrementer()).thenReturn(new RunIdIncrementer());
+        when(loteJobLauncher.executarImediatamente(any(Job.class), any(JobParameters.class))).thenAnswer(r -> {
+            JobParameters jobParameters = r.getArgument(1);
+            fluxo.set(jobParameters.getString(ImportacaoStreamConfiguration.FLUXO));
+            return new JobExecution(1L, jobParameters);
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void deveEncaminharLinhaInvalidaAoStep_semInterromperOEnvio() throws Exception {
+        // Arrange
+        var importacao = new ImportacaoStreamProduto(loteJobLauncher, job, jobExplorer, fluxoImportacaoRegistry, 10, Duration.ofSeconds(30));
+        var entrada = "cerveja,10,5.5\ncerveja sem preco,10\nvinho,3,40.0\n";
+        // Act
+        var jobExecution = importacao.importar(new ByteArrayInputStream(entrada.getBytes(StandardCharsets.UTF_8)));
+        // Assert
+        assertThat(jobExecution.getId()).isEqualTo(1L);
+        var fluxoImportacao = fluxoImportacaoRegistry.obter(fluxo.get());
+        assertThat(fluxoImportacao.proximo().getNome()).isEqualTo("cerveja");
+        assertThatThrownBy(fluxoImportacao::proximo)
+                .isInstanceOf(FlatFileParseException.class)
+                .satisfies(e -> assertThat(((FlatFileParseException) e).getLineNumber()).isEqualTo(2));
+        assertThat(fluxoImportacao.proximo().getNome()).isEqualTo("vinho");
+        assertThat(fluxoImportacao.proximo()).isNull();
+    }
+
+    @Test
+    void deveDevolverExecucao_quandoEncerradaAntesDoFimDoEnvio() throws Exception {
+        // Arrange
+        var importacao = new ImportacaoStreamProduto(loteJobLauncher, job, jobExplorer, fluxoImportacaoRegistry, 1, Duration.ofSeconds(30));
+        when(loteJobLauncher.executarImediatamente(any(Job.class), any(JobParameters.class))).thenAnswer(r -> {
+            JobParameters jobParameters = r.getArgument(1);
+            fluxoImportacaoRegistry.remover(jobParameters.getString(ImportacaoStreamConfiguration.FLUXO));
+            return new JobExecution(1L, jobParameters);
+        });
+        var execucaoFalha = new JobExecution(1L, new JobParameters());
+        execucaoFalha.setStatus(BatchStatus.FAILED);
+        when(jobExplorer.getJobExecution(1L)).thenReturn(execucaoFalha);
+        var entrada = "cerveja,10,5.5\nvinho,3,40.0\n";
+        // Act
+        var jobExecution = importacao.importar(new ByteArrayInputStream(entrada.getBytes(StandardCharsets.UTF_8)));
+        // Assert
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.FAILED);
+        verify(jobExplorer, times(1)).getJobExecution(1L);
+    }
+
+    @Test
+    void deveRejeitarLinha_quandoExcederOTamanhoMaximo() throws Exception {
+        // Arrange
+        var importacao = new ImportacaoStreamProduto(loteJobLauncher, job, jobExplorer, fluxoImportacaoRegistry, 10, Duration.ofSeconds(30));
+        var entrada = "x".repeat(200 * 1024) + "\nvinho,3,40.0\n";
+        // Act
+        importacao.importar(new ByteArrayInputStream(entrada.getBytes(StandardCharsets.UTF_8)));
+        // Assert
+        var fluxoImportacao = fluxoImportacaoRegistry.obter(fluxo.get());
+        assertThatThrownBy(fluxoImportacao::proximo)
+                .isInstanceOf(FlatFileParseException.class)
+                .satisfies(e -> assertThat(((FlatFileParseException) e).getLineNumber()).isEqualTo(1));
+        assertThat(fluxoImportacao.proximo().getNome()).isEqualTo("vinho");
+        assertThat(fluxoImportacao.proximo()).isNull();
+    }
+
+    @Test
+    void deveDesistirDoEnvio_quandoOStepNaoConsumirDentroDaEsperaMaxima() throws Exception {
+        // Arrange
+        var importacao = new ImportacaoStreamProduto(loteJobLauncher, job, jobExplorer, fluxoImportacaoRegistry, 1, Duration.ZERO);
+        var entrada = "cerveja,10,5.5\nvinho,3,40.0\n";
+        // Act
+        var jobExecution = importacao.importar(new ByteArrayInputStream(entrada.getBytes(StandardCharsets.UTF_8)));
+        // Assert
+        assertThat(jobExecution.getId()).isEqualTo(1L);
+        var fluxoImportacao = fluxoImportacaoRegistry.obter(fluxo.get());
+        assertThat(fluxoImportacao.proximo().getNome()).isEqualTo("cerveja");
+        assertThatThrownBy(fluxoImportacao::proximo).isInstanceOf(IllegalStateException.class);
+    }
+}
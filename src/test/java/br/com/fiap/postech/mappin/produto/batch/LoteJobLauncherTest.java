@@ -0,0 +1,151 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.*;
+import org.springframework.batch.core.job.DefaultJobParametersValidator;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class LoteJobLauncherTest {
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private final AtomicLong sequencia = new AtomicLong();
+    private JobRepository jobRepository;
+    private Job job;
+    private LoteJobLauncher loteJobLauncher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jobRepository = mock(JobRepository.class);
+        when(jobRepository.createJobExecution(anyString(), any(JobParameters.class))).thenAnswer(r -> {
+            long id = sequencia.incrementAndGet();
+            return new JobExecution(new JobInstance(id, r.getArgument(0)), id, r.getArgument(1));
+        });
+        job = mock(Job.class);
+        when(job.getName()).thenReturn("job");
+        when(job.getJobParametersValidator()).thenReturn(new DefaultJobParametersValidator());
+        doAnswer(r -> liberar.await(5, TimeUnit.SECONDS)).when(job).execute(any(JobExecution.class));
+        loteJobLauncher = new LoteJobLauncher(jobRepository, 1, 1, 2, 2, Duration.ofMillis(50), "mappin-produto-1", new MockEnvironment());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        liberar.countDown();
+        loteJobLauncher.destroy();
+    }
+
+    @Test
+    void deveRejeitarImportacao_quandoExecucoesEFilaEstiveremOcupadas() throws Exception {
+        // Act
+        loteJobLauncher.executar(job, parametros(1));
+        loteJobLauncher.executar(job, parametros(2));
+        // Assert
+        assertThat(loteJobLauncher.getVagasDisponiveis()).isZero();
+        assertThatThrownBy(() -> loteJobLauncher.executar(job, parametros(3)))
+                .isInstanceOf(CapacidadeLoteEsgotadaException.class);
+        verify(jobRepository, times(2)).createJobExecution(anyString(), any(JobParameters.class));
+        liberar.countDown();
+        verify(job, timeout(5000).times(2)).execute(any(JobExecution.class));
+        aguardarVagas(2);
+    }
+
+    @Test
+    void deveAdiarExecucao_quandoAgendada() throws Exception {
+        // Arrange
+        liberar.countDown();
+        // Act
+        var jobExecution = loteJobLauncher.agendar(job, parametros(1), Instant.now().plusMillis(300));
+        // Assert
+        assertThat(jobExecution.getId()).isNotNull();
+        verify(job, after(100).never()).execute(any(JobExecution.class));
+        verify(job, timeout(5000).times(1)).execute(any(JobExecution.class));
+        aguardarVagas(2);
+    }
+
+    @Test
+    void naoDeveOcuparVaga_enquantoExecucaoAgendadaNaoIniciar() throws Exception {
+        // Act
+        loteJobLauncher.agendar(job, parametros(1), Instant.now().plusSeconds(3600));
+        loteJobLauncher.agendar(job, parametros(2), Instant.now().plusSeconds(3600));
+        // Assert
+        assertThat(loteJobLauncher.getVagasDisponiveis()).isEqualTo(2);
+        loteJobLauncher.executar(job, parametros(3));
+        loteJobLauncher.executar(job, parametros(4));
+        assertThat(loteJobLauncher.getVagasDisponiveis()).isZero();
+        verify(job, timeout(5000).times(1)).execute(any(JobExecution.class));
+        liberar.countDown();
+        verify(job, timeout(5000).times(2)).execute(any(JobExecution.class));
+        aguardarVagas(2);
+    }
+
+    @Test
+    void deveRejeitarExecucaoImediata_quandoNaoHouverExecucaoLivre() throws Exception {
+        // Act
+        loteJobLauncher.executar(job, parametros(1));
+        // Assert
+        assertThatThrownBy(() -> loteJobLauncher.executarImediatamente(job, parametros(2)))
+                .isInstanceOf(CapacidadeLoteEsgotadaException.class);
+        assertThat(loteJobLauncher.getVagasDisponiveis()).isEqualTo(1);
+        verify(jobRepository, times(1)).createJobExecution(anyString(), any(JobParameters.class));
+        liberar.countDown();
+        verify(job, timeout(5000).times(1)).execute(any(JobExecution.class));
+        aguardarVagas(2);
+        loteJobLauncher.executarImediatamente(job, parametros(3));
+        verify(job, timeout(5000).times(2)).execute(any(JobExecution.class));
+        aguardarVagas(2);
+    }
+
+    @Test
+    void deveRejeitarAgendamento_quandoLimiteDeAgendadasForAtingido() throws Exception {
+        // Act
+        loteJobLauncher.agendar(job, parametros(1), Instant.now().plusSeconds(3600));
+        loteJobLauncher.agendar(job, parametros(2), Instant.now().plusSeconds(3600));
+        // Assert
+        assertThat(loteJobLauncher.getAgendamentosDisponiveis()).isZero();
+        assertThatThrownBy(() -> loteJobLauncher.agendar(job, parametros(3), Instant.now().plusSeconds(3600)))
+                .isInstanceOf(CapacidadeLoteEsgotadaException.class);
+        verify(jobRepository, times(2)).createJobExecution(anyString(), any(JobParameters.class));
+    }
+
+    @Test
+    void deveAbandonarExecucaoAgendada_quandoTentativasSeEsgotarem() throws Exception {
+        // Arrange
+        loteJobLauncher.executar(job, parametros(1));
+        loteJobLauncher.executar(job, parametros(2));
+        // Act
+        var agendada = loteJobLauncher.agendar(job, parametros(3), Instant.now().plusMillis(50));
+        // Assert
+        verify(jobRepository, timeout(5000).times(1)).update(agendada);
+        assertThat(agendada.getStatus()).isEqualTo(BatchStatus.FAILED);
+        assertThat(loteJobLauncher.getAgendamentosDisponiveis()).isEqualTo(2);
+        liberar.countDown();
+        verify(job, timeout(5000).times(2)).execute(any(JobExecution.class));
+        aguardarVagas(2);
+        verify(job, never()).execute(agendada);
+    }
+
+    private void aguardarVagas(int vagas) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (loteJobLauncher.getVagasDisponiveis() < vagas && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(loteJobLauncher.getVagasDisponiveis()).isEqualTo(vagas);
+    }
+
+    private static JobParameters parametros(long id) {
+        return new JobParametersBuilder().addLong("id", id).toJobParameters();
+    }
+}
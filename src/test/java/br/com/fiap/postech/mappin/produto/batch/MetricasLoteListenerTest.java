@@ -0,0 +1,49 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricasLoteListenerTest {
+
+    @Test
+    void deveRegistrarTempoDoChunkEItensPorSegundo_somandoParticoes() {
+        // Arrange
+        var meterRegistry = new SimpleMeterRegistry();
+        var listener = new MetricasLoteListener(meterRegistry);
+        var jobExecution = new JobExecution(1L);
+        var particao0 = criarStepExecution(jobExecution, "stepParticao:particao0", 1L);
+        var particao1 = criarStepExecution(jobExecution, "stepParticao:particao1", 2L);
+        // Act
+        listener.beforeStep(particao0);
+        listener.beforeStep(particao1);
+        for (StepExecution particao : new StepExecution[]{particao0, particao1}) {
+            var chunkContext = new ChunkContext(new StepContext(particao));
+            listener.beforeChunk(chunkContext);
+            particao.setWriteCount(100);
+            listener.afterChunk(chunkContext);
+        }
+        var itensPorSegundo = meterRegistry.get("produto.lote.itens.por.segundo").tag("step", "stepParticao").gauge().value();
+        listener.afterStep(particao0);
+        listener.afterStep(particao1);
+        // Assert
+        assertThat(meterRegistry.get("produto.lote.chunk").tag("step", "stepParticao").tag("resultado", "sucesso")
+                .timer().count()).isEqualTo(2);
+        assertThat(itensPorSegundo).isPositive();
+        assertThat(meterRegistry.get("produto.lote.itens.por.segundo").gauge().value()).isZero();
+    }
+
+    private static StepExecution criarStepExecution(JobExecution jobExecution, String nome, long id) {
+        var stepExecution = new StepExecution(nome, jobExecution);
+        stepExecution.setId(id);
+        stepExecution.setStartTime(LocalDateTime.now().minusSeconds(1));
+        return stepExecution;
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.services.ProdutoService;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.batch.item.Chunk;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+class ProdutoItemWriterTest {
+    @Mock
+    private ProdutoService produtoService;
+
+    private ProdutoItemWriter produtoItemWriter;
+
+    private AutoCloseable mock;
+
+    @BeforeEach
+    void setUp() {
+        mock = MockitoAnnotations.openMocks(this);
+        produtoItemWriter = new ProdutoItemWriter(produtoService);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void deveSinalizarRetentativa_quandoOutroCadastroGravarOMesmoNome() {
+        // Arrange
+        var violacao = violacao("uk_produto_nome");
+        when(produtoService.saveAll(anyList())).thenThrow(violacao);
+        // Act & Assert
+        assertThatThrownBy(() -> produtoItemWriter.write(Chunk.of(new Produto("Produto", 1, 1d))))
+                .isInstanceOf(TransientDataAccessException.class)
+                .hasCause(violacao);
+    }
+
+    @Test
+    void devePropagarOutrasViolacoes_semRetentativa() {
+        // Arrange
+        var violacao = violacao("pk_produto");
+        when(produtoService.saveAll(anyList())).thenThrow(violacao);
+        // Act & Assert
+        assertThatThrownBy(() -> produtoItemWriter.write(Chunk.of(new Produto("Produto", 1, 1d))))
+                .isSameAs(violacao);
+    }
+
+    private static DataIntegrityViolationException violacao(String restricao) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key value violates unique constraint", new SQLException(), restricao));
+    }
+}
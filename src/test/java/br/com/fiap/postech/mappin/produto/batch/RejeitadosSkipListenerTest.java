@@ -0,0 +1,54 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.file.FlatFileParseException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RejeitadosSkipListenerTest {
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void deveGravarLinhasRejeitadasComOMotivo() throws Exception {
+        // Arrange
+        var listener = new RejeitadosSkipListener(diretorio);
+        var stepExecution = new StepExecution("stepParticao:particao0", new JobExecution(7L));
+        stepExecution.setExitStatus(ExitStatus.COMPLETED);
+        listener.beforeStep(stepExecution);
+        // Act
+        listener.onSkipInRead(new FlatFileParseException("Preço inválido na linha 3", "Produto,1,abc", 3));
+        listener.onSkipInProcess(new Produto("Produto, especial", 0, 10d), new IllegalArgumentException("Quantidade inválida"));
+        var exitStatus = listener.afterStep(stepExecution);
+        // Assert
+        var arquivo = Path.of(stepExecution.getExecutionContext().getString(RejeitadosSkipListener.ARQUIVO_REJEITADOS));
+        assertThat(arquivo.getParent()).isEqualTo(diretorio);
+        assertThat(arquivo.getFileName().toString()).isEqualTo("rejeitados-7-stepParticao-particao0.csv");
+        assertThat(Files.readAllLines(arquivo)).containsExactly(
+                "linha,registro,motivo",
+                "3,\"Produto,1,abc\",Preço inválido na linha 3",
+                ",\"Produto, especial,0,10.0\",Quantidade inválida");
+        assertThat(exitStatus.getExitDescription()).contains(arquivo.toString());
+    }
+
+    @Test
+    void naoDeveCriarArquivo_quandoNadaForRejeitado() throws Exception {
+        // Arrange
+        var listener = new RejeitadosSkipListener(diretorio);
+        var stepExecution = new StepExecution("step", new JobExecution(8L));
+        listener.beforeStep(stepExecution);
+        // Act
+        var exitStatus = listener.afterStep(stepExecution);
+        // Assert
+        assertThat(exitStatus).isNull();
+        assertThat(Files.list(diretorio)).isEmpty();
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.batch.core.*;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RetomadaImportacoesTest {
+    private static final String JOB = "cadastroProdutoLoteExecucaoProgramada";
+
+    private static final String INSTANCIA = "mappin-produto-1";
+
+    @TempDir
+    Path diretorio;
+
+    @Mock
+    private JobExplorer jobExplorer;
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private LoteJobLauncher loteJobLauncher;
+
+    @Mock
+    private Job job;
+
+    @Mock
+    private Job jobMultiplosArquivos;
+
+    private RetomadaImportacoes retomadaImportacoes;
+
+    private AutoCloseable mock;
+
+    @BeforeEach
+    void setUp() {
+        mock = MockitoAnnotations.openMocks(this);
+        when(job.getName()).thenReturn(JOB);
+        when(jobMultiplosArquivos.getName()).thenReturn("cadastroProdutoLoteMultiplosArquivos");
+        when(loteJobLauncher.getInstancia()).thenReturn(INSTANCIA);
+        retomadaImportacoes = new RetomadaImportacoes(jobExplorer, jobRepository, loteJobLauncher, job, jobMultiplosArquivos, true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void deveMarcarExecucaoInterrompidaComoFalha_eRetomarImportacao() throws Exception {
+        // Arrange
+        var jobExecution = criarJobExecution(1L, BatchStatus.STARTED, Files.createFile(diretorio.resolve("produto.csv")));
+        var particao = jobExecution.createStepExecution("stepExecucaoProgramadaParticao:particao0");
+        particao.setStatus(BatchStatus.STARTED);
+        var particaoConcluida = jobExecution.createStepExecution("stepExecucaoProgramadaParticao:particao1");
+        particaoConcluida.setStatus(BatchStatus.COMPLETED);
+        when(jobExplorer.getJobNames()).thenReturn(List.of(JOB));
+        when(jobExplorer.findRunningJobExecutions(JOB)).thenReturn(Set.of(jobExecution));
+        when(loteJobLauncher.agendar(any(), any(), any())).thenReturn(new JobExecution(2L));
+        // Act
+        retomadaImportacoes.run(new DefaultApplicationArguments());
+        // Assert
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.FAILED);
+        assertThat(particao.getStatus()).isEqualTo(BatchStatus.FAILED);
+        assertThat(particaoConcluida.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        verify(jobRepository, times(1)).update(particao);
+        verify(jobRepository, never()).update(particaoConcluida);
+        verify(jobRepository, times(1)).update(jobExecution);
+        verify(loteJobLauncher, times(1)).agendar(eq(job), eq(jobExecution.getJobParameters()), any(Instant.class));
+    }
+
+    @Test
+    void naoDeveRetomarImportacao_quandoArquivoNaoExistirMais() throws Exception {
+        // Arrange
+        var jobExecution = criarJobExecution(1L, BatchStatus.STARTING, diretorio.resolve("removido.csv"));
+        when(jobExplorer.getJobNames()).thenReturn(List.of(JOB));
+        when(jobExplorer.findRunningJobExecutions(JOB)).thenReturn(Set.of(jobExecution));
+        // Act
+        retomadaImportacoes.run(new DefaultApplicationArguments());
+        // Assert
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.FAILED);
+        verify(loteJobLauncher, never()).agendar(any(), any(), any());
+    }
+
+    @Test
+    void naoDeveRetomarImportacao_quandoExecucaoPertencerAOutraInstancia() throws Exception {
+        // Arrange
+        var jobExecution = criarJobExecution(1L, BatchStatus.STARTED, Files.createFile(diretorio.resolve("produto.csv")),
+                "mappin-produto-2");
+        when(jobExplorer.getJobNames()).thenReturn(List.of(JOB));
+        when(jobExplorer.findRunningJobExecutions(JOB)).thenReturn(Set.of(jobExecution));
+        // Act
+        retomadaImportacoes.run(new DefaultApplicationArguments());
+        // Assert
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.STARTED);
+        verify(jobRepository, never()).update(any(JobExecution.class));
+        verify(loteJobLauncher, never()).agendar(any(), any(), any());
+    }
+
+    @Test
+    void deveRejeitarReinicio_quandoExecucaoJaConcluida() throws Exception {
+        // Arrange
+        var jobExecution = criarJobExecution(1L, BatchStatus.COMPLETED, Files.createFile(diretorio.resolve("produto.csv")));
+        when(jobExplorer.getJobExecution(1L)).thenReturn(jobExecution);
+        // Act & Assert
+        assertThatThrownBy(() -> retomadaImportacoes.reiniciar(1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("COMPLETED");
+        verifyNoInteractions(loteJobLauncher);
+    }
+
+    @Test
+    void deveReiniciarExecucaoComFalha_comOsMesmosParametros() throws Exception {
+        // Arrange
+        var jobExecution = criarJobExecution(1L, BatchStatus.FAILED, Files.createFile(diretorio.resolve("produto.csv")));
+        when(jobExplorer.getJobExecution(1L)).thenReturn(jobExecution);
+        when(loteJobLauncher.executar(job, jobExecution.getJobParameters())).thenReturn(new JobExecution(2L));
+        // Act
+        var reinicio = retomadaImportacoes.reiniciar(1L);
+        // Assert
+        assertThat(reinicio.getId()).isEqualTo(2L);
+    }
+
+    private static JobExecution criarJobExecution(long id, BatchStatus status, Path arquivo) {
+        return criarJobExecution(id, status, arquivo, INSTANCIA);
+    }
+
+    private static JobExecution criarJobExecution(long id, BatchStatus status, Path arquivo, String instancia) {
+        var jobParameters = new JobParametersBuilder()
+                .addString(ExecucaoProgramadaConfiguration.ARQUIVO, arquivo.toString())
+                .addLong("run.id", id)
+                .addString(LoteJobLauncher.INSTANCIA, instancia, false)
+                .toJobParameters();
+        var jobExecution = new JobExecution(new JobInstance(id, JOB), id, jobParameters);
+        jobExecution.setStatus(status);
+        return jobExecution;
+    }
+}
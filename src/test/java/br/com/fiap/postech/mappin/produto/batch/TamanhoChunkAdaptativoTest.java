@@ -0,0 +1,89 @@
+package br.com.fiap.postech.mappin.produto.batch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.repeat.RepeatContext;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TamanhoChunkAdaptativoTest {
+    private static final long MILISSEGUNDO = 1_000_000L;
+
+    private final AtomicLong relogio = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ChunkContext chunkContext = new ChunkContext(new StepContext(new StepExecution("step", new JobExecution(1L))));
+
+    @Test
+    void deveConvergirProximoAoTamanhoDeMaiorVazao() {
+        // Arrange
+        // 5ms por commit, 0,01ms por item e penalidade quadrática acima de 800 itens: ótimo perto de 800
+        IntToLongFunction custo = itens -> 5 * MILISSEGUNDO + itens * 10_000L
+                + (itens > 800 ? (long) (itens - 800) * (itens - 800) * 100L : 0);
+        var politica = criar(16, 5000, 16, Duration.ofSeconds(1));
+        // Act
+        for (int i = 0; i < 200; i++) {
+            executarChunk(politica, custo);
+        }
+        // Assert
+        assertThat(politica.getChunkSize()).isBetween(600, 1100);
+        assertThat(meterRegistry.get("produto.lote.chunk.tamanho").tag("step", "step").summary().count()).isEqualTo(200);
+    }
+
+    @Test
+    void deveReduzirOTamanho_quandoALatenciaUltrapassarOLimite() {
+        // Arrange
+        IntToLongFunction custo = itens -> itens * MILISSEGUNDO;
+        var politica = criar(10, 1000, 1000, Duration.ofMillis(200));
+        // Act
+        for (int i = 0; i < 20; i++) {
+            executarChunk(politica, custo);
+        }
+        // Assert
+        assertThat(politica.getChunkSize()).isLessThanOrEqualTo(300);
+    }
+
+    @Test
+    void deveRespeitarOsLimitesConfigurados() {
+        // Arrange
+        IntToLongFunction custo = itens -> 50 * MILISSEGUNDO + itens;
+        var politica = criar(16, 64, 16, Duration.ofSeconds(1));
+        // Act
+        for (int i = 0; i < 50; i++) {
+            executarChunk(politica, custo);
+            // Assert
+            assertThat(politica.getChunkSize()).isBetween(16, 64);
+        }
+    }
+
+    @Test
+    void deveRejeitarFaixaInvalida() {
+        assertThatThrownBy(() -> criar(100, 10, 50, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TamanhoChunkAdaptativo criar(int minimo, int maximo, int inicial, Duration latenciaMaxima) {
+        return new TamanhoChunkAdaptativo(minimo, maximo, inicial, latenciaMaxima, 1.5, "step:particao0",
+                meterRegistry, relogio::get);
+    }
+
+    private void executarChunk(TamanhoChunkAdaptativo politica, IntToLongFunction custo) {
+        politica.beforeChunk(chunkContext);
+        RepeatContext repeatContext = politica.start(null);
+        int itens = 0;
+        while (!politica.isComplete(repeatContext)) {
+            politica.update(repeatContext);
+            itens++;
+        }
+        relogio.addAndGet(custo.applyAsLong(itens));
+        politica.afterChunk(chunkContext);
+    }
+}
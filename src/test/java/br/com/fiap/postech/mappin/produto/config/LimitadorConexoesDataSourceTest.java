@@ -0,0 +1,48 @@
+package br.com.fiap.postech.mappin.produto.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class LimitadorConexoesDataSourceTest {
+
+    @Test
+    void deveLimitarConexoesSimultaneas_eLiberarAoFechar() throws Exception {
+        // Arrange
+        var dataSource = mock(DataSource.class);
+        var conexao = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(conexao);
+        var limitador = new LimitadorConexoesDataSource(dataSource, 1, Duration.ofMillis(50));
+        // Act
+        var primeiraConexao = limitador.getConnection();
+        // Assert
+        assertThat(limitador.getConexoesDisponiveis()).isZero();
+        assertThatThrownBy(limitador::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        primeiraConexao.close();
+        primeiraConexao.close();
+        assertThat(limitador.getConexoesDisponiveis()).isEqualTo(1);
+        try (var segundaConexao = limitador.getConnection()) {
+            assertThat(segundaConexao).isNotNull();
+        }
+        verify(conexao, times(3)).close();
+        verify(dataSource, times(2)).getConnection();
+    }
+
+    @Test
+    void deveLiberarPermissao_quandoDataSourceFalhar() throws Exception {
+        // Arrange
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(new SQLTransientConnectionException("indisponível"));
+        var limitador = new LimitadorConexoesDataSource(dataSource, 1, Duration.ofMillis(50));
+        // Act && Assert
+        assertThatThrownBy(limitador::getConnection).hasMessage("indisponível");
+        assertThat(limitador.getConexoesDisponiveis()).isEqualTo(1);
+    }
+}
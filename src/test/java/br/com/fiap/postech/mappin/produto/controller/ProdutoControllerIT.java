@@ -118,6 +118,24 @@ public class ProdutoControllerIT {
                 .statusCode(HttpStatus.OK.value())
                 .body(matchesJsonSchemaInClasspath("schemas/produto.page.schema.json"));
         }
+
+        @Test
+        void devePermitirBuscarTodosProduto_FiltrandoNomeExatoOuParteDoNome() {
+            given()
+                .queryParam("nome", "LONDON")
+            .when()
+                .get(CLIENTE)
+            .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("totalElements", equalTo(0));
+            given()
+                .queryParam("nomeContem", "LONDON")
+            .when()
+                .get(CLIENTE)
+            .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("content[0].nome", equalTo("london pride"));
+        }
     }
 
     @Nested
@@ -140,6 +158,26 @@ public class ProdutoControllerIT {
                 .body(matchesJsonSchemaInClasspath("schemas/produto.schema.json"));
         }
 
+        @Test
+        void deveGerarExcecao_QuandoAlterarProduto_nomeJaCadastrado() {
+            var produtoExistente = ProdutoHelper.getProduto(false);
+            given()
+                .body(produtoExistente).contentType(MediaType.APPLICATION_JSON_VALUE)
+            .when()
+                .post(CLIENTE)
+            .then()
+                .statusCode(HttpStatus.CREATED.value());
+            var produto = new Produto(produtoExistente.getNome(), 25, 29.99);
+            produto.setId(UUID.fromString("81b6b80d-e64e-41fc-9097-0f31127e2bc4"));
+            given()
+                .body(produto).contentType(MediaType.APPLICATION_JSON_VALUE)
+            .when()
+                .put(CLIENTE + "/{id}", produto.getId())
+            .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body(equalTo("Já existe um produto com o nome: " + produtoExistente.getNome()));
+        }
+
         @Test
         void deveGerarExcecao_QuandoAlterarProduto_RequisicaoXml() {
             var produto = ProdutoHelper.getProduto(true);
@@ -196,4 +234,17 @@ public class ProdutoControllerIT {
                 .body(equalTo("Produto não encontrado com o ID: " + produto.getId()));
         }
     }
+
+    @Nested
+    class RemoverProdutoEstoqueEmLote {
+        @Test
+        void deveGerarExcecao_QuandoRemoverProdutoEstoqueEmLote_semId() {
+            given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE).body("[{\"quantidade\": 1}]")
+            .when()
+                .post("/mappin/function-remover-do-estoque-em-lote")
+            .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+        }
+    }
 }
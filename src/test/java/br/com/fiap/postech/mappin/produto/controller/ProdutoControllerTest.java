@@ -2,7 +2,12 @@ package br.com.fiap.postech.mappin.produto.controller;
 
 import br.com.fiap.postech.mappin.produto.entities.Produto;
 import br.com.fiap.postech.mappin.produto.helper.ProdutoHelper;
+import br.com.fiap.postech.mappin.produto.integration.ProdutosPorIdResponse;
+import br.com.fiap.postech.mappin.produto.services.BuscaProduto;
+import br.com.fiap.postech.mappin.produto.services.CadastroEmLoteProduto;
+import br.com.fiap.postech.mappin.produto.services.ProdutoFiltro;
 import br.com.fiap.postech.mappin.produto.services.ProdutoService;
+import br.com.fiap.postech.mappin.produto.services.ResultadoBusca;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,20 +18,31 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class ProdutoControllerTest {
@@ -34,12 +50,16 @@ class ProdutoControllerTest {
     private MockMvc mockMvc;
     @Mock
     private ProdutoService produtoService;
+    @Mock
+    private BuscaProduto buscaProduto;
+    @Mock
+    private CadastroEmLoteProduto cadastroEmLoteProduto;
     private AutoCloseable mock;
 
     @BeforeEach
     void setUp() {
         mock = MockitoAnnotations.openMocks(this);
-        ProdutoController produtoController = new ProdutoController(produtoService);
+        ProdutoController produtoController = new ProdutoController(produtoService, buscaProduto, cadastroEmLoteProduto);
         mockMvc = MockMvcBuilders.standaloneSetup(produtoController).build();
     }
 
@@ -81,6 +101,27 @@ class ProdutoControllerTest {
             // Assert
             verify(produtoService, never()).save(any(Produto.class));
         }
+
+        @Test
+        void devePermitirCadastrarProdutosEmLote_emNdjson() throws Exception {
+            // Arrange
+            doAnswer(r -> {
+                r.<OutputStream>getArgument(1).write("{\"indice\":0,\"situacao\":\"CRIADO\"}\n".getBytes(StandardCharsets.UTF_8));
+                return null;
+            }).when(cadastroEmLoteProduto).cadastrar(any(InputStream.class), any(OutputStream.class), eq(true));
+            // Act
+            var resultado = mockMvc.perform(
+                            post("/produto/lote").contentType(MediaType.APPLICATION_NDJSON)
+                                    .content("{\"nome\":\"Café\",\"quantidade\":10,\"preco\":15.5}\n"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(resultado))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string("{\"indice\":0,\"situacao\":\"CRIADO\"}\n"));
+            // Assert
+            verify(cadastroEmLoteProduto, times(1)).cadastrar(any(InputStream.class), any(OutputStream.class), eq(true));
+        }
     }
     @Nested
     class BuscarProduto {
@@ -140,6 +181,143 @@ class ProdutoControllerTest {
             // Assert
             verify(produtoService, times(1)).findAll(pageable, criterioProduto);
         }
+
+        @Test
+        void devePermitirBuscarTodosProdutoComFiltrosEOrdenacao() throws Exception {
+            // Arrange
+            var pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "preco").and(Sort.by("id")));
+            when(produtoService.findAll(eq(pageable), any(ProdutoFiltro.class))).thenReturn(Page.empty(pageable));
+            // Act
+            mockMvc.perform(
+                    get("/produto")
+                            .param("precoMinimo", "10")
+                            .param("precoMaximo", "50.5")
+                            .param("quantidadeAbaixoDe", "5")
+                            .param("atualizadoDesde", "2024-01-31T10:15:00")
+                            .param("ordenacao", "preco,desc")
+            );
+            // Assert
+            verify(produtoService, times(1)).findAll(eq(pageable), argThat((ProdutoFiltro f) ->
+                    f.getPrecoMinimo() == 10d && f.getPrecoMaximo() == 50.5d && f.getQuantidadeAbaixoDe() == 5
+                            && f.getAtualizadoDesde().equals(LocalDateTime.of(2024, 1, 31, 10, 15))));
+            verify(produtoService, never()).findAll(any(PageRequest.class), any(Produto.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoBuscarTodosProduto_ordenacaoInvalida() throws Exception {
+            // Act
+            mockMvc.perform(
+                            get("/produto")
+                                    .param("ordenacao", "senha,desc")
+                    )
+                    .andExpect(status().isBadRequest());
+            // Assert
+            verify(produtoService, never()).findAll(any(PageRequest.class), any(ProdutoFiltro.class));
+        }
+
+        @Test
+        void devePermitirBuscarTodosProdutoPorCursor() throws Exception {
+            // Arrange
+            var produto = ProdutoHelper.getProduto(true);
+            Window<Produto> janela = Window.from(List.of(produto), i -> ScrollPosition.keyset(), true);
+            when(produtoService.findAll(any(ScrollPosition.class), eq(1), any(Produto.class))).thenReturn(janela);
+            // Act
+            var resultado = mockMvc.perform(
+                            get("/produto")
+                                    .param("size", "1")
+                                    .param("cursor", "")
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.conteudo[0].id").value(produto.getId().toString()))
+                    .andExpect(jsonPath("$.proximoCursor").isNotEmpty())
+                    .andReturn();
+            var proximoCursor = new ObjectMapper().readTree(resultado.getResponse().getContentAsString())
+                    .get("proximoCursor").asText();
+            mockMvc.perform(
+                            get("/produto")
+                                    .param("size", "1")
+                                    .param("cursor", proximoCursor)
+                    )
+                    .andExpect(status().isOk());
+            // Assert
+            verify(produtoService, times(1)).findAll(ScrollPosition.keyset(), 1, new Produto(null, null, null));
+            verify(produtoService, never()).findAll(any(PageRequest.class), any(Produto.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoBuscarTodosProdutoPorCursor_cursorInvalido() throws Exception {
+            // Act
+            mockMvc.perform(
+                            get("/produto")
+                                    .param("cursor", "cursor-invalido")
+                    )
+                    .andExpect(status().isBadRequest());
+            // Assert
+            verify(produtoService, never()).findAll(any(ScrollPosition.class), anyInt(), any(Produto.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoBuscarTodosProdutoPorCursor_tamanhoInvalido() throws Exception {
+            // Act
+            mockMvc.perform(
+                            get("/produto")
+                                    .param("size", "0")
+                                    .param("cursor", "")
+                    )
+                    .andExpect(status().isBadRequest());
+            // Assert
+            verify(produtoService, never()).findAll(any(ScrollPosition.class), anyInt(), any(Produto.class));
+            verify(produtoService, never()).findAll(any(ScrollPosition.class), anyInt(), any(ProdutoFiltro.class));
+        }
+
+        @Test
+        void devePermitirBuscarProdutosPorIds() throws Exception {
+            // Arrange
+            var produto = ProdutoHelper.getProduto(true);
+            var idInexistente = UUID.randomUUID();
+            var ids = List.of(produto.getId(), idInexistente);
+            when(produtoService.findAllById(ids)).thenReturn(new ProdutosPorIdResponse(List.of(produto), List.of(idInexistente)));
+            // Act
+            mockMvc.perform(
+                            post("/produto/ids")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(asJsonString(ids))
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.produtos[0].id").value(produto.getId().toString()))
+                    .andExpect(jsonPath("$.naoEncontrados[0]").value(idInexistente.toString()));
+            // Assert
+            verify(produtoService, times(1)).findAllById(ids);
+        }
+
+        @Test
+        void devePermitirBuscarProdutoPorTermo() throws Exception {
+            // Arrange
+            var resultado = new ResultadoBusca(UUID.randomUUID(), "Café Torrado");
+            when(buscaProduto.isPronto()).thenReturn(true);
+            when(buscaProduto.buscar("caf", 5)).thenReturn(List.of(resultado));
+            // Act
+            mockMvc.perform(
+                            get("/produto/busca")
+                                    .param("termo", "caf")
+                                    .param("limite", "5")
+                    )
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].nome").value("Café Torrado"));
+            // Assert
+            verify(buscaProduto, times(1)).buscar("caf", 5);
+        }
+
+        @Test
+        void deveRetornarIndisponivel_QuandoIndiceDeBuscaEmConstrucao() throws Exception {
+            // Arrange
+            when(buscaProduto.isPronto()).thenReturn(false);
+            // Act
+            mockMvc.perform(get("/produto/busca").param("termo", "caf"))
+                    .andExpect(status().isServiceUnavailable());
+            // Assert
+            verify(buscaProduto, never()).buscar(anyString(), anyInt());
+        }
     }
 
     @Nested
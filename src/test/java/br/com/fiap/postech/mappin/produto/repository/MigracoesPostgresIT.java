@@ -0,0 +1,40 @@
+package br.com.fiap.postech.mappin.produto.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// roda com -Pmigracoes contra o Postgres do docker compose (ou -Dspring.datasource.url=...):
+// o contexto só sobe se as migrações forem aplicadas e o ddl-auto=validate aceitar o esquema gerado por elas
+@SpringBootTest(properties = "spring.batch.job.enabled=false")
+public class MigracoesPostgresIT {
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deveAplicarEValidarTodasAsMigracoes() {
+        // Act
+        var validacao = flyway.validateWithResult();
+        // Assert
+        assertThat(validacao.validationSuccessful).as(validacao.getAllErrorMessages()).isTrue();
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().applied()).isNotEmpty();
+    }
+
+    @Test
+    void deveCriarIndicesDosFiltrosDeProduto() {
+        // Act
+        var indices = jdbcTemplate.queryForList(
+                "select indexname from pg_indexes where tablename = 'tb_produto'", String.class);
+        // Assert
+        assertThat(indices).contains("uk_produto_nome", "ix_produto_nome_trgm", "ix_produto_preco",
+                "ix_produto_quantidade", "ix_produto_data_atualizacao");
+    }
+}
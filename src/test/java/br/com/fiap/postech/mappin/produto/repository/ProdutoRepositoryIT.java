@@ -9,6 +9,10 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -41,6 +45,31 @@ public class ProdutoRepositoryIT {
         assertThat(produtoCadastrado.getPreco()).isEqualTo(produto.getPreco());
     }
     @Test
+    void devePermitirCadastrarProduto_registrandoDataAtualizacao() {
+        // Arrange
+        var produto = ProdutoHelper.getProduto(true);
+        produto.setDataAtualizacao(LocalDateTime.of(2000, 1, 1, 0, 0));
+        var inicio = LocalDateTime.now().minusSeconds(1);
+        // Act
+        var produtoCadastrado = produtoRepository.saveAndFlush(produto);
+        // Assert
+        assertThat(produtoCadastrado.getDataAtualizacao()).isAfterOrEqualTo(inicio);
+    }
+    @Test
+    void devePermitirRemoverDoEstoque_atualizandoDataAtualizacao() {
+        // Arrange
+        var id = UUID.fromString("81b6b80d-e64e-41fc-9097-0f31127e2bc4");
+        var idLote = UUID.fromString("cccf34c8-c57d-4612-aed9-edbeda2dc38f");
+        var inicio = LocalDateTime.now().minusSeconds(1);
+        // Act
+        produtoRepository.removerDoEstoque(id, 1);
+        produtoRepository.removerDoEstoque(new TreeMap<>(Map.of(idLote, 1)));
+        // Assert
+        assertThat(produtoRepository.findAllById(List.of(id, idLote)))
+                .hasSize(2)
+                .allSatisfy(produto -> assertThat(produto.getDataAtualizacao()).isAfterOrEqualTo(inicio));
+    }
+    @Test
     void devePermitirBuscarProduto() {
         // Arrange
         var id = UUID.fromString("81b6b80d-e64e-41fc-9097-0f31127e2bc4");
@@ -0,0 +1,140 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class CadastroEmLoteProdutoTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private ProdutoService produtoService;
+
+    private CadastroEmLoteProduto cadastroEmLoteProduto;
+    private AutoCloseable mock;
+
+    @BeforeEach
+    void setUp() {
+        mock = MockitoAnnotations.openMocks(this);
+        cadastroEmLoteProduto = new CadastroEmLoteProduto(produtoService, objectMapper, 2,
+                new ProdutoValidacao(meterRegistry), meterRegistry);
+        when(produtoService.saveAll(anyList())).thenAnswer(r -> {
+            List<Produto> salvos = new ArrayList<>();
+            for (Produto produto : r.<List<Produto>>getArgument(0)) {
+                if (produto.getNome().startsWith("Existente")) {
+                    var existente = new Produto(produto.getNome(), produto.getQuantidade(), produto.getPreco());
+                    existente.setId(UUID.randomUUID());
+                    salvos.add(existente);
+                } else {
+                    produto.setId(UUID.randomUUID());
+                    salvos.add(produto);
+                }
+            }
+            return salvos;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void deveInformarResultadoDeCadaItem_emNdjson() throws Exception {
+        // Arrange
+        var entrada = """
+                {"nome":"Café","quantidade":10,"preco":15.5}
+                {"nome":"Chá","quantidade":0,"preco":8.0}
+                {"nome":"Existente Açúcar","quantidade":5,"preco":4.2}
+                {"nome":"Café","quantidade":12,"preco":16.0}
+                {"preco":1.0}
+                """;
+        // Act
+        var resultados = cadastrar(entrada, true);
+        // Assert
+        assertThat(resultados).extracting(r -> r.get("situacao").asText())
+                .containsExactly("CRIADO", "REJEITADO", "ATUALIZADO", "CRIADO", "REJEITADO");
+        assertThat(resultados).extracting(r -> r.get("indice").asLong()).containsExactly(0L, 1L, 2L, 3L, 4L);
+        assertThat(resultados.get(1).get("mensagem").asText()).isEqualTo(ProdutoValidacao.QUANTIDADE_INVALIDA);
+        assertThat(meterRegistry.counter("produto.cadastro.lote.itens", "situacao", "rejeitado").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter(ProdutoValidacao.REJEICOES, "motivo", "quantidade").count()).isEqualTo(1);
+        verify(produtoService, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void deveDefinirDataAtualizacao_ignorandoAEnviadaPeloCliente() throws Exception {
+        // Arrange
+        var entrada = """
+                {"nome":"Café","quantidade":10,"preco":15.5,"dataAtualizacao":"2000-01-01T00:00:00"}
+                {"nome":"Chá","quantidade":3,"preco":8.0}
+                """;
+        var inicio = LocalDateTime.now();
+        // Act
+        cadastrar(entrada, true);
+        // Assert
+        verify(produtoService, times(1)).saveAll(argThat(produtos -> produtos.size() == 2
+                && produtos.stream().allMatch(p -> p.getDataAtualizacao() != null && !p.getDataAtualizacao().isBefore(inicio))));
+    }
+
+    @Test
+    void deveGravarUmaVezCadaNome_quandoRepetidoNoMesmoLote() throws Exception {
+        // Arrange
+        var entrada = """
+                [{"nome":"Café","quantidade":10,"preco":15.5},{"nome":"Café","quantidade":12,"preco":16.0}]
+                """;
+        // Act
+        var resultados = cadastrar(entrada, false);
+        // Assert
+        assertThat(resultados).extracting(r -> r.get("situacao").asText()).containsExactly("SUBSTITUIDO", "CRIADO");
+        assertThat(resultados.get(0).get("id")).isEqualTo(resultados.get(1).get("id"));
+        verify(produtoService, times(1)).saveAll(argThat(produtos -> produtos.size() == 1
+                && produtos.get(0).getQuantidade() == 12));
+    }
+
+    @Test
+    void deveGravarItensAnteriores_quandoJsonInvalido() throws Exception {
+        // Arrange
+        var entrada = """
+                [{"nome":"Café","quantidade":10,"preco":15.5},{"nome":"Chá","quantidade":
+                """;
+        // Act
+        var resultados = cadastrar(entrada, false);
+        // Assert
+        assertThat(resultados).extracting(r -> r.get("situacao").asText()).containsExactly("CRIADO", "REJEITADO");
+        assertThat(resultados.get(1).get("indice").asLong()).isEqualTo(1L);
+        assertThat(resultados.get(1).get("mensagem").asText()).startsWith("JSON inválido");
+        verify(produtoService, times(1)).saveAll(anyList());
+    }
+
+    private List<JsonNode> cadastrar(String entrada, boolean ndjson) throws Exception {
+        var saida = new ByteArrayOutputStream();
+        cadastroEmLoteProduto.cadastrar(new ByteArrayInputStream(entrada.getBytes(StandardCharsets.UTF_8)), saida, ndjson);
+        List<JsonNode> resultados = new ArrayList<>();
+        if (ndjson) {
+            for (String linha : saida.toString(StandardCharsets.UTF_8).split("\n")) {
+                resultados.add(objectMapper.readTree(linha));
+            }
+        } else {
+            objectMapper.readTree(saida.toByteArray()).forEach(resultados::add);
+        }
+        return resultados;
+    }
+}
@@ -0,0 +1,236 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.repository.EstoqueJournalAplicadoRepository;
+import br.com.fiap.postech.mappin.produto.repository.ProdutoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class EstoqueWriteBehindTest {
+    @TempDir
+    Path diretorio;
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private EstoqueJournalAplicadoRepository estoqueJournalAplicadoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EstoqueWriteBehind estoqueWriteBehind;
+
+    private AutoCloseable mock;
+
+    @BeforeEach
+    void setUp() {
+        mock = MockitoAnnotations.openMocks(this);
+        when(produtoRepository.removerDoEstoque(any(SortedMap.class)))
+                .thenAnswer(r -> IntStream.generate(() -> 1).limit(((SortedMap<?, ?>) r.getArgument(0)).size()).toArray());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (estoqueWriteBehind != null) {
+            estoqueWriteBehind.destroy();
+        }
+        mock.close();
+    }
+
+    @Test
+    void deveReservarAteOSaldoDisponivel_eDescarregarODeltaAcumulado() throws Exception {
+        // Arrange
+        var produto = getProduto(5);
+        when(produtoRepository.findAllById(anyIterable())).thenReturn(List.of(produto));
+        estoqueWriteBehind = criar();
+        // Act
+        var primeiraReserva = estoqueWriteBehind.reservar(itens(produto.getId(), 3));
+        var segundaReserva = estoqueWriteBehind.reservar(itens(produto.getId(), 2));
+        var terceiraReserva = estoqueWriteBehind.reservar(itens(produto.getId(), 1));
+        estoqueWriteBehind.descarregar();
+        // Assert
+        assertThat(primeiraReserva).isEmpty();
+        assertThat(segundaReserva).containsExactly(produto.getId());
+        assertThat(terceiraReserva).isEmpty();
+        verify(produtoRepository, times(1)).findAllById(anyIterable());
+        verify(produtoRepository, times(1)).removerDoEstoque(argThat((SortedMap<UUID, Integer> m) ->
+                m.size() == 1 && m.get(produto.getId()) == 4));
+        verify(estoqueJournalAplicadoRepository, times(1)).saveAll(anyIterable());
+        verify(estoqueJournalAplicadoRepository, times(1)).deleteAllByIdInBatch(argThat((Iterable<String> segmentos) ->
+                segmentos.iterator().hasNext()));
+        assertThat(Files.list(diretorio).filter(p -> Files.isRegularFile(p) && sizeOf(p) > 0)).isEmpty();
+    }
+
+    @Test
+    void deveLiberarReservasDoLote_quandoAlgumItemForRejeitado() throws Exception {
+        // Arrange
+        var produto = getProduto(5);
+        var idInexistente = UUID.randomUUID();
+        when(produtoRepository.findAllById(anyIterable())).thenReturn(List.of(produto));
+        estoqueWriteBehind = criar();
+        var lote = itens(produto.getId(), 4);
+        lote.put(idInexistente, 1);
+        // Act
+        var rejeitados = estoqueWriteBehind.reservar(lote);
+        var reserva = estoqueWriteBehind.reservar(itens(produto.getId(), 4));
+        // Assert
+        assertThat(rejeitados).containsExactly(idInexistente);
+        assertThat(reserva).isEmpty();
+    }
+
+    @Test
+    void deveRecalcularSaldo_quandoProdutoForAlterado() throws Exception {
+        // Arrange
+        var produto = getProduto(5);
+        when(produtoRepository.findAllById(anyIterable())).thenReturn(List.of(produto));
+        estoqueWriteBehind = criar();
+        estoqueWriteBehind.reservar(itens(produto.getId(), 3));
+        var produtoAlterado = getProduto(20);
+        produtoAlterado.setId(produto.getId());
+        // Act
+        estoqueWriteBehind.produtosAlterados(ProdutosAlteradosEvent.salvos(List.of(produtoAlterado)));
+        var reserva = estoqueWriteBehind.reservar(itens(produto.getId(), 16));
+        var reservaAcimaDoSaldo = estoqueWriteBehind.reservar(itens(produto.getId(), 1));
+        // Assert
+        assertThat(reserva).isEmpty();
+        assertThat(reservaAcimaDoSaldo).containsExactly(produto.getId());
+    }
+
+    @Test
+    void devePreservarJournal_quandoRemocaoForRecusadaNoBanco() throws Exception {
+        // Arrange
+        var produto = getProduto(5);
+        when(produtoRepository.findAllById(anyIterable())).thenReturn(List.of(produto));
+        when(produtoRepository.removerDoEstoque(any(SortedMap.class))).thenReturn(new int[]{0});
+        estoqueWriteBehind = criar();
+        estoqueWriteBehind.reservar(itens(produto.getId(), 3));
+        // Act
+        estoqueWriteBehind.descarregar();
+        // Assert
+        var rejeitados = diretorio.resolve("rejeitados");
+        try (var arquivados = Files.walk(rejeitados)) {
+            var arquivos = arquivados.filter(Files::isRegularFile).toList();
+            assertThat(arquivos).anyMatch(p -> p.getFileName().toString().endsWith(".journal") && sizeOf(p) > 0);
+            assertThat(arquivos).filteredOn(p -> p.getFileName().toString().equals("rejeitados.txt"))
+                    .singleElement()
+                    .satisfies(p -> assertThat(Files.readString(p)).isEqualTo(produto.getId() + ":3\n"));
+        }
+        assertThat(Files.list(diretorio).filter(p -> Files.isRegularFile(p) && sizeOf(p) > 0)).isEmpty();
+    }
+
+    @Test
+    void deveReaplicarJournal_naInicializacao() throws Exception {
+        // Arrange
+        var id = UUID.randomUUID();
+        try (var journal = new EstoqueJournal(diretorio, true)) {
+            journal.abrir();
+            journal.registrar(itens(id, 2));
+            journal.registrar(itens(id, 3));
+        }
+        Files.writeString(diretorio.resolve("estoque-0-incompleto.journal"), id + ":7");
+        when(estoqueJournalAplicadoRepository.existsById(anyString())).thenReturn(false);
+        // Act
+        estoqueWriteBehind = criar();
+        // Assert
+        verify(produtoRepository, times(1)).removerDoEstoque(argThat((SortedMap<UUID, Integer> m) ->
+                m.equals(Map.of(id, 5))));
+        verify(estoqueJournalAplicadoRepository, times(1)).saveAll(anyIterable());
+    }
+
+    @Test
+    void naoDeveReaplicarJournal_jaAplicado() throws Exception {
+        // Arrange
+        try (var journal = new EstoqueJournal(diretorio, true)) {
+            journal.abrir();
+            journal.registrar(itens(UUID.randomUUID(), 2));
+        }
+        when(estoqueJournalAplicadoRepository.existsById(anyString())).thenReturn(true);
+        // Act
+        estoqueWriteBehind = criar();
+        // Assert
+        verify(produtoRepository, never()).removerDoEstoque(any(SortedMap.class));
+        verify(estoqueJournalAplicadoRepository, times(1)).deleteAllByIdInBatch(anyIterable());
+        assertThat(Files.list(diretorio)).allMatch(p -> sizeOf(p) == 0);
+    }
+
+    @Test
+    void deveGravarTodosOsRegistros_quandoRegistrosConcorrentesCompartilharemOFsync() throws Exception {
+        // Arrange
+        var id = UUID.randomUUID();
+        var executor = Executors.newFixedThreadPool(8);
+        Path segmento;
+        // Act
+        try (var journal = new EstoqueJournal(diretorio, true)) {
+            journal.abrir();
+            var registros = new ArrayList<Future<?>>();
+            for (int i = 0; i < 400; i++) {
+                registros.add(executor.submit(() -> {
+                    journal.registrar(itens(id, 1));
+                    return null;
+                }));
+            }
+            for (Future<?> registro : registros) {
+                registro.get();
+            }
+            segmento = journal.segmentosExistentes().get(0);
+        } finally {
+            executor.shutdown();
+        }
+        // Assert
+        assertThat(EstoqueJournal.ler(segmento)).isEqualTo(Map.of(id, 400));
+    }
+
+    private EstoqueWriteBehind criar() throws Exception {
+        var writeBehind = new EstoqueWriteBehind(produtoRepository, estoqueJournalAplicadoRepository, transactionManager,
+                new NoOpCacheManager(), evento -> {}, diretorio, true, Duration.ofHours(1), 1000);
+        writeBehind.afterPropertiesSet();
+        return writeBehind;
+    }
+
+    private static Produto getProduto(int quantidade) {
+        var produto = new Produto("Produto", quantidade, 10d);
+        produto.setId(UUID.randomUUID());
+        return produto;
+    }
+
+    private static SortedMap<UUID, Integer> itens(UUID id, int quantidade) {
+        SortedMap<UUID, Integer> itens = new TreeMap<>();
+        itens.put(id, quantidade);
+        return itens;
+    }
+
+    private static long sizeOf(Path arquivo) {
+        try {
+            return Files.size(arquivo);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
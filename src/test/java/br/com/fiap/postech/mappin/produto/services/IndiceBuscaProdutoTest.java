@@ -0,0 +1,87 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceBuscaProdutoTest {
+    private final UUID cafe = UUID.randomUUID();
+    private final UUID cafeteira = UUID.randomUUID();
+    private final UUID acucar = UUID.randomUUID();
+    private IndiceBuscaProduto indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceBuscaProduto();
+        indice.indexar(cafe, "Café Torrado 500g");
+        indice.indexar(cafeteira, "Cafeteira Elétrica");
+        indice.indexar(acucar, "Açúcar Cristal");
+    }
+
+    @Test
+    void deveNormalizarAcentosECaixa() {
+        // Act
+        var tokens = IndiceBuscaProduto.tokens("  Açúcar-CRISTAL, 1kg ");
+        // Assert
+        assertThat(tokens).containsExactly("acucar", "cristal", "1kg");
+    }
+
+    @Test
+    void deveBuscarPorPrefixo_comTermoExatoPrimeiro() {
+        // Act
+        var resultado = indice.buscar("caf", 10);
+        // Assert
+        assertThat(resultado).extracting(ResultadoBusca::getId).containsExactly(cafe, cafeteira);
+    }
+
+    @Test
+    void deveBuscarPorVariosTermos_ultimoComoPrefixo() {
+        // Act
+        var resultado = indice.buscar("cafe torr", 10);
+        // Assert
+        assertThat(resultado).extracting(ResultadoBusca::getNome).containsExactly("Café Torrado 500g");
+    }
+
+    @Test
+    void deveTolerarUmErroDeDigitacao() {
+        // Act
+        var substituicao = indice.buscar("acucer ", 10);
+        var transposicao = indice.buscar("cafeteria", 10);
+        var termosDeProdutosDiferentes = indice.buscar("cristl eletrica", 10);
+        // Assert
+        assertThat(substituicao).extracting(ResultadoBusca::getId).containsExactly(acucar);
+        assertThat(transposicao).extracting(ResultadoBusca::getId).containsExactly(cafeteira);
+        assertThat(termosDeProdutosDiferentes).isEmpty();
+    }
+
+    @Test
+    void deveAtualizarIndice_quandoProdutoRenomeadoOuRemovido() {
+        // Arrange
+        long bytesIniciais = indice.getBytesEstimados();
+        // Act
+        indice.indexar(cafe, "Chá Mate");
+        indice.remover(acucar);
+        // Assert
+        assertThat(indice.buscar("cafe ", 10)).isEmpty();
+        assertThat(indice.buscar("mate", 10)).extracting(ResultadoBusca::getId).containsExactly(cafe);
+        assertThat(indice.buscar("acucar", 10)).isEmpty();
+        assertThat(indice.getProdutos()).isEqualTo(2);
+        assertThat(indice.getBytesEstimados()).isPositive().isLessThan(bytesIniciais);
+        indice.remover(cafe);
+        indice.remover(cafeteira);
+        assertThat(indice.getTermos()).isZero();
+        assertThat(indice.getBytesEstimados()).isZero();
+    }
+
+    @Test
+    void naoDeveSobrescreverProdutoJaIndexado_quandoIndexarSeAusente() {
+        // Act
+        var indexado = indice.indexarSeAusente(cafe, "Nome Antigo");
+        // Assert
+        assertThat(indexado).isFalse();
+        assertThat(indice.buscar("antigo", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.repository.ProdutoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class MonitorEstoqueBaixoTest {
+    private static final int LIMITE = 10;
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    private final List<EstoqueBaixoEvent> eventos = new ArrayList<>();
+    private MonitorEstoqueBaixo monitor;
+    private AutoCloseable mock;
+
+    @BeforeEach
+    void setUp() {
+        mock = MockitoAnnotations.openMocks(this);
+        EstoqueBaixoListener listener = eventos::add;
+        var listeners = new StaticListableBeanFactory(Map.<String, Object>of("listener", listener)).getBeanProvider(EstoqueBaixoListener.class);
+        monitor = new MonitorEstoqueBaixo(produtoRepository, listeners, LIMITE, Duration.ofHours(1), 2, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mock.close();
+    }
+
+    @Test
+    void deveNotificarUmaVez_quandoEstoqueCruzarOLimite() {
+        // Arrange
+        var produto = getProduto(LIMITE);
+        when(produtoRepository.findAllById(anyIterable())).thenReturn(List.of(produto));
+        // Act
+        monitor.estoqueRemovido(new EstoqueRemovidoEvent(List.of(produto.getId())));
+        monitor.verificar();
+        monitor.estoqueRemovido(new EstoqueRemovidoEvent(List.of(produto.getId())));
+        monitor.verificar();
+        // Assert
+        assertThat(eventos).singleElement().satisfies(evento -> {
+            assertThat(evento.getId()).isEqualTo(produto.getId());
+            assertThat(evento.getQuantidade()).isEqualTo(LIMITE);
+            assertThat(evento.getLimite()).isEqualTo(LIMITE);
+        });
+        verify(produtoRepository, times(2)).findAllById(anyIterable());
+    }
+
+    @Test
+    void deveNotificarNovamente_quandoEstoqueForReposto() {
+        // Arrange
+        var produto = getProduto(3);
+        var produtoReposto = getProduto(50);
+        produtoReposto.setId(produto.getId());
+        when(produtoRepository.findAllById(anyIterable())).thenReturn(List.of(produto));
+        // Act
+        monitor.estoqueRemovido(new EstoqueRemovidoEvent(List.of(produto.getId())));
+        monitor.verificar();
+        monitor.produtosAlterados(ProdutosAlteradosEvent.salvos(List.of(produtoReposto)));
+        monitor.estoqueRemovido(new EstoqueRemovidoEvent(List.of(produto.getId())));
+        monitor.verificar();
+        // Assert
+        assertThat(eventos).hasSize(2);
+    }
+
+    @Test
+    void naoDeveConsultarOBanco_quandoNaoHouverRemocoes() {
+        // Act
+        monitor.verificar();
+        // Assert
+        verify(produtoRepository, never()).findAllById(anyIterable());
+        assertThat(eventos).isEmpty();
+    }
+
+    @Test
+    void deveDescartarVerificacoes_quandoCapacidadeEsgotada() {
+        // Arrange
+        var ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(produtoRepository.findAllById(anyIterable())).thenReturn(List.of());
+        // Act
+        monitor.estoqueRemovido(new EstoqueRemovidoEvent(ids));
+        monitor.verificar();
+        // Assert
+        verify(produtoRepository, times(1)).findAllById(argThat((Iterable<UUID> consultados) ->
+                consultados.spliterator().getExactSizeIfKnown() == 2));
+    }
+
+    private static Produto getProduto(int quantidade) {
+        var produto = new Produto("Produto", quantidade, 10d);
+        produto.setId(UUID.randomUUID());
+        return produto;
+    }
+}
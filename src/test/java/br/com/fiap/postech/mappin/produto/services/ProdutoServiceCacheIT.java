@@ -0,0 +1,86 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import br.com.fiap.postech.mappin.produto.config.CacheConfiguration;
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.integration.ProdutoRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+public class ProdutoServiceCacheIT {
+    @Autowired
+    private ProdutoService produtoService;
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache cache;
+    private UUID id;
+
+    @BeforeEach
+    void setUp() {
+        cache = cacheManager.getCache(CacheConfiguration.PRODUTOS);
+        id = produtoService.save(new Produto("Balde de Gelo " + UUID.randomUUID(), 10, 59.9)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        produtoService.delete(id);
+    }
+
+    @Test
+    void devePermitirBuscarProdutoPorId_usandoCache() {
+        // Act
+        var produto = produtoService.findById(id);
+        // Assert
+        assertThat(cache.get(id, Produto.class)).isSameAs(produto);
+        assertThat(produtoService.findById(id)).isSameAs(produto);
+    }
+
+    @Test
+    void devePermitirBuscarProdutosPorIds_usandoCache() {
+        // Arrange
+        var idInexistente = UUID.randomUUID();
+        // Act
+        var resultado = produtoService.findAllById(List.of(id, idInexistente));
+        // Assert
+        assertThat(resultado.getProdutos()).singleElement().isSameAs(cache.get(id, Produto.class));
+        assertThat(resultado.getNaoEncontrados()).containsExactly(idInexistente);
+        assertThat(produtoService.findById(id)).isSameAs(resultado.getProdutos().get(0));
+    }
+
+    @Test
+    void deveInvalidarCache_QuandoAlterarProduto() {
+        // Arrange
+        produtoService.findById(id);
+        // Act
+        produtoService.update(id, new Produto(null, 20, null));
+        // Assert
+        assertThat(cache.get(id)).isNull();
+        assertThat(produtoService.findById(id).getQuantidade()).isEqualTo(20);
+    }
+
+    @Test
+    void deveInvalidarCache_QuandoRemoverDoEstoque() {
+        // Arrange
+        produtoService.findById(id);
+        // Act
+        produtoService.removerDoEstoque(new ProdutoRequest(id, 4));
+        // Assert
+        assertThat(cache.get(id)).isNull();
+        assertThat(produtoService.findById(id).getQuantidade()).isEqualTo(6);
+    }
+}
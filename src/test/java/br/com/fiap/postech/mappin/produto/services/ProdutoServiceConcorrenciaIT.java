@@ -0,0 +1,68 @@
+package br.com.fiap.postech.mappin.produto.services;
+
+import br.com.fiap.postech.mappin.produto.entities.Produto;
+import br.com.fiap.postech.mappin.produto.integration.ProdutoRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+public class ProdutoServiceConcorrenciaIT {
+    private static final int THREADS = 8;
+    private static final int REMOCOES_POR_THREAD = 200;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Test
+    void devePermitirRemoverProdutoEstoque_semPerderAtualizacoes_QuandoConcorrente() throws Exception {
+        // Arrange
+        var estoqueInicial = 1001;
+        var id = produtoService.save(new Produto("Barril de Chopp " + UUID.randomUUID(), estoqueInicial, 899.9)).getId();
+        var sucessos = new AtomicInteger();
+        var rejeicoes = new AtomicInteger();
+        var largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> tarefas = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int j = 0; j < REMOCOES_POR_THREAD; j++) {
+                        try {
+                            produtoService.removerDoEstoque(new ProdutoRequest(id, 1));
+                            sucessos.incrementAndGet();
+                        } catch (IllegalArgumentException e) {
+                            rejeicoes.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // Act
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // Assert
+        assertThat(sucessos.get()).isEqualTo(estoqueInicial - 1);
+        assertThat(rejeicoes.get()).isEqualTo(THREADS * REMOCOES_POR_THREAD - (estoqueInicial - 1));
+        assertThat(produtoService.findById(id).getQuantidade()).isEqualTo(1);
+        produtoService.delete(id);
+    }
+}
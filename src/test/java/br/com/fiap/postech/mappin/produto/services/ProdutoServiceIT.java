@@ -2,6 +2,7 @@ package br.com.fiap.postech.mappin.produto.services;
 
 import br.com.fiap.postech.mappin.produto.entities.Produto;
 import br.com.fiap.postech.mappin.produto.helper.ProdutoHelper;
+import br.com.fiap.postech.mappin.produto.integration.ProdutoEstoqueResponse;
 import br.com.fiap.postech.mappin.produto.integration.ProdutoRequest;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.Nested;
@@ -10,9 +11,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -43,6 +51,22 @@ public class ProdutoServiceIT {
             assertThat(produtoSalvo.getPreco()).isEqualTo(produto.getPreco());
             assertThat(produtoSalvo.getId()).isNotNull();
         }
+
+        @Test
+        void devePermitirCadastrarProdutosEmLote() {
+            // Arrange
+            var id = UUID.fromString("81b6b80d-e64e-41fc-9097-0f31127e2bc4");
+            var produtoAlterado = new Produto("london pride", 40, 31.5);
+            var produtoNovo = ProdutoHelper.getProduto(false);
+            // Act
+            var produtosSalvos = produtoService.saveAll(List.of(produtoAlterado, produtoNovo));
+            // Assert
+            assertThat(produtosSalvos).hasSize(2);
+            assertThat(produtosSalvos.get(0).getId()).isEqualTo(id);
+            assertThat(produtoService.findById(id).getQuantidade()).isEqualTo(40);
+            assertThat(produtoService.findById(produtosSalvos.get(1).getId()).getNome())
+                    .isEqualTo(produtoNovo.getNome());
+        }
     }
 
     @Nested
@@ -88,6 +112,82 @@ public class ProdutoServiceIT {
                     }
             );
         }
+
+        @Test
+        void devePermitirBuscarTodosProduto_filtrandoNomeExato() {
+            // Arrange
+            Produto criteriosDeBusca = new Produto("london pride", null, null);
+            criteriosDeBusca.setId(null);
+            Produto criteriosParteDoNome = new Produto("LONDON", null, null);
+            criteriosParteDoNome.setId(null);
+            // Act
+            var listaProdutosObtidos = produtoService.findAll(Pageable.unpaged(), criteriosDeBusca);
+            var listaParteDoNome = produtoService.findAll(Pageable.unpaged(), criteriosParteDoNome);
+            // Assert
+            assertThat(listaProdutosObtidos.getContent()).singleElement()
+                    .satisfies(produtoObtido -> assertThat(produtoObtido.getNome()).isEqualTo("london pride"));
+            assertThat(listaParteDoNome.getContent()).isEmpty();
+        }
+
+        @Test
+        void devePermitirBuscarTodosProduto_filtrandoParteDoNomeSemDiferenciarMaiusculas() {
+            // Arrange
+            var filtro = new ProdutoFiltro(null, "LONDON", null, null, null, null);
+            // Act
+            var listaProdutosObtidos = produtoService.findAll(Pageable.unpaged(), filtro);
+            // Assert
+            assertThat(listaProdutosObtidos.getContent()).isNotEmpty()
+                    .allSatisfy(produtoObtido -> assertThat(produtoObtido.getNome()).containsIgnoringCase("london"));
+        }
+
+        @Test
+        void devePermitirBuscarTodosProduto_filtrandoFaixaDePrecoEEstoqueBaixo() {
+            // Arrange
+            var filtro = new ProdutoFiltro(null, null, 20d, 40d, 40, null);
+            var pageable = PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "preco").and(Sort.by("id")));
+            // Act
+            var listaProdutosObtidos = produtoService.findAll(pageable, filtro);
+            // Assert
+            assertThat(listaProdutosObtidos.getContent()).isNotEmpty()
+                    .allSatisfy(produtoObtido -> {
+                        assertThat(produtoObtido.getPreco()).isBetween(20d, 40d);
+                        assertThat(produtoObtido.getQuantidade()).isLessThan(40);
+                    })
+                    .isSortedAccordingTo(Comparator.comparing(Produto::getPreco).reversed());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoBuscarTodosProduto_precoMinimoMaiorQueMaximo() {
+            // Arrange
+            var filtro = new ProdutoFiltro(null, null, 50d, 10d, null, null);
+            // Act & Assert
+            assertThatThrownBy(() -> produtoService.findAll(Pageable.unpaged(), filtro))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("O preço mínimo não pode ser maior que o preço máximo.");
+        }
+
+        @Test
+        void devePermitirBuscarTodosProdutoPorCursor() {
+            // Arrange
+            Produto criteriosDeBusca = new Produto(null,null,null);
+            criteriosDeBusca.setId(null);
+            List<Produto> produtosObtidos = new ArrayList<>();
+            ScrollPosition posicao = ScrollPosition.keyset();
+            Window<Produto> janela;
+            // Act
+            do {
+                janela = produtoService.findAll(posicao, 10, criteriosDeBusca);
+                produtosObtidos.addAll(janela.getContent());
+                if (janela.hasNext()) {
+                    posicao = janela.positionAt(janela.size() - 1);
+                }
+            } while (janela.hasNext());
+            // Assert
+            assertThat(produtosObtidos).hasSize(38);
+            assertThat(produtosObtidos).extracting(Produto::getId).doesNotHaveDuplicates();
+            assertThat(produtosObtidos).isSortedAccordingTo(Comparator.comparing(Produto::getNome)
+                    .thenComparing(Produto::getId));
+        }
     }
 
     @Nested
@@ -179,4 +279,38 @@ public class ProdutoServiceIT {
                     .hasMessage("Não é possível alterar a quantidade de um produto para um valor menor ou igual a zero.");
         }
     }
+
+    @Nested
+    class RemoverProdutoEstoqueEmLote {
+        @Test
+        void devePermitirRemoverProdutoEstoqueEmLote() {
+            var id1 = UUID.fromString("81b6b80d-e64e-41fc-9097-0f31127e2bc4");
+            var id2 = UUID.fromString("cccf34c8-c57d-4612-aed9-edbeda2dc38f");
+            var quantidadeEsperada1 = produtoService.findById(id1).getQuantidade() - 3;
+            var quantidadeEsperada2 = produtoService.findById(id2).getQuantidade() - 1;
+
+            var resultados = produtoService.removerDoEstoqueEmLote(List.of(new ProdutoRequest(id2, 1), new ProdutoRequest(id1, 3)));
+
+            assertThat(resultados).extracting(ProdutoEstoqueResponse::getSituacao)
+                    .containsOnly(ProdutoEstoqueResponse.Situacao.RESERVADO);
+            assertThat(produtoService.findById(id1).getQuantidade()).isEqualTo(quantidadeEsperada1);
+            assertThat(produtoService.findById(id2).getQuantidade()).isEqualTo(quantidadeEsperada2);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRemoverProdutoEstoqueEmLote_itemSemEstoque() {
+            var id1 = UUID.fromString("81b6b80d-e64e-41fc-9097-0f31127e2bc4");
+            var idInexistente = UUID.randomUUID();
+
+            var produtoRequests = List.of(new ProdutoRequest(id1, 5000), new ProdutoRequest(idInexistente, 1));
+
+            assertThatThrownBy(() -> produtoService.removerDoEstoqueEmLote(produtoRequests))
+                    .isInstanceOf(ReservaEstoqueException.class)
+                    .satisfies(e -> assertThat(((ReservaEstoqueException) e).getResultados())
+                            .extracting(ProdutoEstoqueResponse::getSituacao)
+                            .containsExactly(
+                                    ProdutoEstoqueResponse.Situacao.SEM_ESTOQUE,
+                                    ProdutoEstoqueResponse.Situacao.NAO_ENCONTRADO));
+        }
+    }
 }
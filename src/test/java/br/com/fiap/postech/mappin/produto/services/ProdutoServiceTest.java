@@ -1,22 +1,34 @@
 package br.com.fiap.postech.mappin.produto.services;
 
+import br.com.fiap.postech.mappin.produto.config.CacheConfiguration;
 import br.com.fiap.postech.mappin.produto.entities.Produto;
 import br.com.fiap.postech.mappin.produto.helper.ProdutoHelper;
+import br.com.fiap.postech.mappin.produto.integration.ProdutoEstoqueResponse;
+import br.com.fiap.postech.mappin.produto.integration.ProdutoRequest;
 import br.com.fiap.postech.mappin.produto.repository.ProdutoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.SortedMap;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -35,7 +47,8 @@ class ProdutoServiceTest {
     @BeforeEach
     void setUp() {
         mock = MockitoAnnotations.openMocks(this);
-        produtoService = new ProdutoServiceImpl(produtoRepository);
+        produtoService = new ProdutoServiceImpl(produtoRepository, new NoOpCacheManager(), Optional.empty(), evento -> {},
+                new ProdutoValidacao(new SimpleMeterRegistry()), new SimpleMeterRegistry());
     }
 
     @AfterEach
@@ -78,6 +91,75 @@ class ProdutoServiceTest {
             verify(produtoRepository, times(1)).findByNome(anyString());
             verify(produtoRepository, times(1)).save(any(Produto.class));
         }
+
+        @Test
+        void devePermitirCadastrarProduto_produtoCadastradoConcorrentemente() {
+            // Arrange
+            var produto = ProdutoHelper.getProduto(false);
+            var produtoConcorrente = ProdutoHelper.getProduto(true);
+            when(produtoRepository.findByNome(anyString()))
+                    .thenReturn(Optional.empty())
+                    .thenReturn(Optional.of(produtoConcorrente));
+            when(produtoRepository.save(any(Produto.class)))
+                    .thenThrow(violacao("uk_produto_nome"))
+                    .thenAnswer(r -> r.getArgument(0));
+            // Act
+            var produtoSalvo = produtoService.save(produto);
+            // Assert
+            assertThat(produtoSalvo.getId()).isEqualTo(produtoConcorrente.getId());
+            assertThat(produtoSalvo.isNew()).isFalse();
+            verify(produtoRepository, times(2)).findByNome(anyString());
+            verify(produtoRepository, times(2)).save(any(Produto.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoCadastrarProduto_violacaoDeOutraRestricao() {
+            // Arrange
+            var produto = ProdutoHelper.getProduto(false);
+            when(produtoRepository.findByNome(anyString())).thenReturn(Optional.empty());
+            when(produtoRepository.save(any(Produto.class))).thenThrow(violacao("pk_produto"));
+            // Act & Assert
+            assertThatThrownBy(() -> produtoService.save(produto))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+            verify(produtoRepository, times(1)).save(any(Produto.class));
+        }
+    }
+
+    @Nested
+    class CadastrarProdutoEmLote {
+        @Test
+        void devePermitirCadastrarProdutosEmLote() {
+            // Arrange
+            var produtoExistente = ProdutoHelper.getProduto(true);
+            var produtoAlterado = new Produto(produtoExistente.getNome(), 7, 8.5);
+            var produtoNovo = new Produto("Chopeira Elétrica", 3, 1500d);
+            when(produtoRepository.findByNomeIn(anyCollection())).thenReturn(List.of(produtoExistente));
+            when(produtoRepository.saveAllAndFlush(anyList())).thenAnswer(r -> r.getArgument(0));
+            // Act
+            var produtosSalvos = produtoService.saveAll(List.of(produtoAlterado, produtoNovo));
+            // Assert
+            assertThat(produtosSalvos).hasSize(2);
+            assertThat(produtosSalvos.get(0)).isSameAs(produtoExistente);
+            assertThat(produtosSalvos.get(0).getQuantidade()).isEqualTo(7);
+            assertThat(produtosSalvos.get(0).getPreco()).isEqualTo(8.5);
+            assertThat(produtosSalvos.get(1).getId()).isNotNull();
+            assertThat(produtosSalvos.get(1).isNew()).isTrue();
+            verify(produtoRepository, times(1)).findByNomeIn(anyCollection());
+            verify(produtoRepository, never()).findByNome(anyString());
+            verify(produtoRepository, times(1)).saveAllAndFlush(anyList());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoCadastrarProdutosEmLote_quantidadeInvalida() {
+            // Arrange
+            var produtos = List.of(ProdutoHelper.getProduto(false), new Produto("Copo Americano", 0, 5d));
+            // Act && Assert
+            assertThatThrownBy(() -> produtoService.saveAll(produtos))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Não é possível alterar a quantidade de um produto para um valor menor ou igual a zero.");
+            verify(produtoRepository, never()).findByNomeIn(anyCollection());
+            verify(produtoRepository, never()).saveAllAndFlush(anyList());
+        }
     }
 
     @Nested
@@ -131,6 +213,59 @@ class ProdutoServiceTest {
             );
             verify(produtoRepository, times(1)).findAll(any(Example.class), any(Pageable.class));
         }
+
+        @Test
+        void devePermitirBuscarProdutosPorIds_informandoNaoEncontrados() {
+            // Arrange
+            var produtoEmCache = ProdutoHelper.getProduto(true);
+            var produtoNoBanco = ProdutoHelper.getProduto(true);
+            var idInexistente = UUID.randomUUID();
+            var cacheManager = new ConcurrentMapCacheManager(CacheConfiguration.PRODUTOS);
+            cacheManager.getCache(CacheConfiguration.PRODUTOS).put(produtoEmCache.getId(), produtoEmCache);
+            produtoService = new ProdutoServiceImpl(produtoRepository, cacheManager, Optional.empty(), evento -> {},
+                    new ProdutoValidacao(new SimpleMeterRegistry()), new SimpleMeterRegistry());
+            when(produtoRepository.findAllById(anyIterable())).thenReturn(List.of(produtoNoBanco));
+            // Act
+            var resultado = produtoService.findAllById(List.of(
+                    idInexistente, produtoNoBanco.getId(), produtoEmCache.getId(), produtoNoBanco.getId()));
+            // Assert
+            assertThat(resultado.getProdutos()).containsExactly(produtoNoBanco, produtoEmCache);
+            assertThat(resultado.getNaoEncontrados()).containsExactly(idInexistente);
+            assertThat(cacheManager.getCache(CacheConfiguration.PRODUTOS).get(produtoNoBanco.getId(), Produto.class))
+                    .isSameAs(produtoNoBanco);
+            verify(produtoRepository, times(1)).findAllById(List.of(idInexistente, produtoNoBanco.getId()));
+        }
+
+        @Test
+        void deveConsultarEmLotes_QuandoBuscarMuitosProdutosPorIds() {
+            // Arrange
+            List<UUID> ids = new ArrayList<>();
+            for (int i = 0; i < ProdutoServiceImpl.TAMANHO_CONSULTA_IDS * 2 + 1; i++) {
+                ids.add(UUID.randomUUID());
+            }
+            when(produtoRepository.findAllById(anyIterable())).thenReturn(List.of());
+            // Act
+            var resultado = produtoService.findAllById(ids);
+            // Assert
+            assertThat(resultado.getProdutos()).isEmpty();
+            assertThat(resultado.getNaoEncontrados()).containsExactlyElementsOf(ids);
+            verify(produtoRepository, times(3)).findAllById(anyIterable());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoBuscarProdutosPorIds_acimaDoLimite() {
+            // Arrange
+            List<UUID> ids = new ArrayList<>();
+            for (int i = 0; i <= ProdutoServiceImpl.LIMITE_IDS; i++) {
+                ids.add(UUID.randomUUID());
+            }
+            // Act
+            assertThatThrownBy(() -> produtoService.findAllById(ids))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("A consulta aceita no máximo " + ProdutoServiceImpl.LIMITE_IDS + " ids.");
+            // Assert
+            verify(produtoRepository, never()).findAllById(anyIterable());
+        }
     }
 
     @Nested
@@ -256,4 +391,118 @@ class ProdutoServiceTest {
             verify(produtoRepository, never()).deleteById(any(UUID.class));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class RemoverProdutoEstoque {
+        @Test
+        void devePermitirRemoverProdutoEstoque() {
+            // Arrange
+            var id = UUID.randomUUID();
+            when(produtoRepository.removerDoEstoque(id, 3)).thenReturn(1);
+            // Act
+            produtoService.removerDoEstoque(new ProdutoRequest(id, 3));
+            // Assert
+            verify(produtoRepository, times(1)).removerDoEstoque(id, 3);
+            verify(produtoRepository, never()).findById(any(UUID.class));
+            verify(produtoRepository, never()).save(any(Produto.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRemoverProdutoEstoque_estoqueInsuficiente() {
+            // Arrange
+            var produto = ProdutoHelper.getProduto(true);
+            var produtoRequest = new ProdutoRequest(produto.getId(), 500);
+            when(produtoRepository.removerDoEstoque(produto.getId(), 500)).thenReturn(0);
+            when(produtoRepository.findById(produto.getId())).thenReturn(Optional.of(produto));
+            // Act && Assert
+            assertThatThrownBy(() -> produtoService.removerDoEstoque(produtoRequest))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Não é possível alterar a quantidade de um produto para um valor menor ou igual a zero.");
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRemoverProdutoEstoque_idNaoExiste() {
+            // Arrange
+            var id = UUID.randomUUID();
+            var produtoRequest = new ProdutoRequest(id, 1);
+            when(produtoRepository.removerDoEstoque(id, 1)).thenReturn(0);
+            when(produtoRepository.findById(id)).thenReturn(Optional.empty());
+            // Act && Assert
+            assertThatThrownBy(() -> produtoService.removerDoEstoque(produtoRequest))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Produto não encontrado com o ID: " + id);
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRemoverProdutoEstoque_quantidadeInvalida() {
+            // Arrange
+            var produtoRequest = new ProdutoRequest(UUID.randomUUID(), 0);
+            // Act && Assert
+            assertThatThrownBy(() -> produtoService.removerDoEstoque(produtoRequest))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("A quantidade a remover do estoque deve ser maior que zero.");
+            verify(produtoRepository, never()).removerDoEstoque(any(UUID.class), anyInt());
+        }
+    }
+
+    @Nested
+    class RemoverProdutoEstoqueEmLote {
+        @Test
+        void devePermitirRemoverProdutoEstoqueEmLote() {
+            // Arrange
+            var id1 = UUID.randomUUID();
+            var id2 = UUID.randomUUID();
+            var produtoRequests = List.of(new ProdutoRequest(id1, 2), new ProdutoRequest(id2, 1), new ProdutoRequest(id1, 3));
+            when(produtoRepository.removerDoEstoque(any(SortedMap.class))).thenReturn(new int[]{1, 1});
+            // Act
+            var resultados = produtoService.removerDoEstoqueEmLote(produtoRequests);
+            // Assert
+            assertThat(resultados).hasSize(3)
+                    .allSatisfy(r -> assertThat(r.getSituacao()).isEqualTo(ProdutoEstoqueResponse.Situacao.RESERVADO));
+            verify(produtoRepository, times(1)).removerDoEstoque(argThat(m -> m.size() == 2 && m.get(id1) == 5));
+            verify(produtoRepository, never()).findAllById(any());
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRemoverProdutoEstoqueEmLote_semId() {
+            // Arrange
+            var produtoRequests = List.of(new ProdutoRequest(UUID.randomUUID(), 1), new ProdutoRequest(null, 1));
+            // Act
+            assertThatThrownBy(() -> produtoService.removerDoEstoqueEmLote(produtoRequests))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("O id do produto a remover do estoque é obrigatório.");
+            // Assert
+            verify(produtoRepository, never()).removerDoEstoque(any(SortedMap.class));
+        }
+
+        @Test
+        void deveGerarExcecao_QuandoRemoverProdutoEstoqueEmLote_itemSemEstoque() {
+            // Arrange
+            var produto = ProdutoHelper.getProduto(true);
+            var idInexistente = UUID.randomUUID();
+            var idComEstoque = UUID.randomUUID();
+            var produtoRequests = List.of(new ProdutoRequest(produto.getId(), 500),
+                    new ProdutoRequest(idInexistente, 1),
+                    new ProdutoRequest(idComEstoque, 1));
+            when(produtoRepository.removerDoEstoque(any(SortedMap.class))).thenAnswer(r -> {
+                SortedMap<UUID, Integer> quantidadesPorId = r.getArgument(0);
+                return quantidadesPorId.keySet().stream().mapToInt(id -> id.equals(idComEstoque) ? 1 : 0).toArray();
+            });
+            when(produtoRepository.findAllById(any())).thenReturn(List.of(produto));
+            // Act && Assert
+            assertThatThrownBy(() -> produtoService.removerDoEstoqueEmLote(produtoRequests))
+                    .isInstanceOf(ReservaEstoqueException.class)
+                    .satisfies(e -> assertThat(((ReservaEstoqueException) e).getResultados())
+                            .extracting(ProdutoEstoqueResponse::getSituacao)
+                            .containsExactly(
+                                    ProdutoEstoqueResponse.Situacao.SEM_ESTOQUE,
+                                    ProdutoEstoqueResponse.Situacao.NAO_ENCONTRADO,
+                                    ProdutoEstoqueResponse.Situacao.CANCELADO));
+        }
+    }
+
+    private static DataIntegrityViolationException violacao(String restricao) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key value violates unique constraint", new SQLException(), restricao));
+    }
+}